@@ -1,18 +1,23 @@
 package org.bcnlab.beaconLabsBW;
 
 import lombok.Getter;
+import org.bcnlab.beaconLabsBW.arena.ArenaInstanceManager;
 import org.bcnlab.beaconLabsBW.arena.ArenaManager;
 import org.bcnlab.beaconLabsBW.command.BedwarsCommandHandler;
 import org.bcnlab.beaconLabsBW.command.ForceTeamCommand;
 import org.bcnlab.beaconLabsBW.command.ForceMapCommand;
+import org.bcnlab.beaconLabsBW.command.DiagnosticsCommand;
 import org.bcnlab.beaconLabsBW.command.ForceStartCommand;
 import org.bcnlab.beaconLabsBW.command.ModeCommand;
 import org.bcnlab.beaconLabsBW.command.ShopVillagerCommand;
 import org.bcnlab.beaconLabsBW.config.ConfigManager;
 import org.bcnlab.beaconLabsBW.game.GameManager;
+import org.bcnlab.beaconLabsBW.game.ParticleManager;
 import org.bcnlab.beaconLabsBW.generator.GeneratorManager;
+import org.bcnlab.beaconLabsBW.generator.GeneratorScheduler;
 import org.bcnlab.beaconLabsBW.listeners.BlockListener;
 import org.bcnlab.beaconLabsBW.listeners.EntityListener;
+import org.bcnlab.beaconLabsBW.listeners.GameEventRouter;
 import org.bcnlab.beaconLabsBW.listeners.PlayerListener;
 import org.bcnlab.beaconLabsBW.listeners.InventoryListener;
 import org.bcnlab.beaconLabsBW.listeners.BlockPhysicsListener;
@@ -23,6 +28,7 @@ import org.bcnlab.beaconLabsBW.game.ultimates.UltimatesManager;
 import org.bcnlab.beaconLabsBW.game.ultimates.UltimatesListener;
 import org.bcnlab.beaconLabsBW.utils.MessageUtils;
 
+import org.bukkit.World;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
@@ -49,8 +55,11 @@ public final class BeaconLabsBW extends JavaPlugin {
     // Managers
     private ConfigManager configManager;
     private ArenaManager arenaManager;
+    private ArenaInstanceManager arenaInstanceManager;
     private GameManager gameManager;
     private GeneratorManager generatorManager;
+    private GeneratorScheduler generatorScheduler;
+    private ParticleManager particleManager;
     private ShopManager shopManager;
     private TeamUpgradeManager teamUpgradeManager;
     private UltimatesManager ultimatesManager;
@@ -61,6 +70,7 @@ public final class BeaconLabsBW extends JavaPlugin {
     private ForceTeamCommand forceTeamCommand;
     private ForceMapCommand forceMapCommand;
     private ForceStartCommand forceStartCommand;
+    private DiagnosticsCommand diagnosticsCommand;
     private ModeCommand modeCommand;
     private ShopVillagerCommand shopVillagerCommand;
 
@@ -73,7 +83,12 @@ public final class BeaconLabsBW extends JavaPlugin {
         // Initialize managers
         this.configManager = new ConfigManager(this);
         this.arenaManager = new ArenaManager(this);
+        this.arenaInstanceManager = new ArenaInstanceManager(this);
         this.generatorManager = new GeneratorManager(this);
+        this.generatorScheduler = new GeneratorScheduler(this);
+        this.generatorScheduler.start();
+        this.particleManager = new ParticleManager(this);
+        this.particleManager.start();
         this.shopManager = new ShopManager(this);
         this.teamUpgradeManager = new TeamUpgradeManager(this);
         this.ultimatesManager = new UltimatesManager(this);
@@ -98,6 +113,10 @@ public final class BeaconLabsBW extends JavaPlugin {
         getCommand("forcestart").setExecutor(forceStartCommand);
         getCommand("forcestart").setTabCompleter(forceStartCommand);
         
+        this.diagnosticsCommand = new DiagnosticsCommand(this);
+        getCommand("bwdiag").setExecutor(diagnosticsCommand);
+        getCommand("bwdiag").setTabCompleter(diagnosticsCommand);
+        
         this.modeCommand = new ModeCommand(this);
         getCommand("mode").setExecutor(modeCommand);
         getCommand("mode").setTabCompleter(modeCommand);
@@ -109,6 +128,11 @@ public final class BeaconLabsBW extends JavaPlugin {
         // Register event listeners
         registerListeners();
         
+        // Chunks loaded before the listeners were registered may hold leftovers of games from before a crash
+        for (World world : getServer().getWorlds()) {
+            gameManager.removeStrayEntities(world.getEntities());
+        }
+        
         // Attempt to auto-start if configured
         if (configManager.isAutoStartEnabled()) {
             gameManager.attemptAutoStart();
@@ -124,6 +148,14 @@ public final class BeaconLabsBW extends JavaPlugin {
             gameManager.shutdownAllGames();
         }
         
+        // Stop the shared generator task
+        if (generatorScheduler != null) {
+            generatorScheduler.shutdown();
+        }
+        if (particleManager != null) {
+            particleManager.shutdown();
+        }
+        
         // Save any pending arena changes
         if (arenaManager != null) {
             arenaManager.saveAllArenas();
@@ -138,16 +170,27 @@ public final class BeaconLabsBW extends JavaPlugin {
     }
     
     private PlayerListener playerListener;
+    private GameEventRouter gameEventRouter;
     
     private void registerListeners() {
         PluginManager pm = getServer().getPluginManager();
         // Store the PlayerListener instance to access void check methods
         playerListener = new PlayerListener(this);
+        BlockListener blockListener = new BlockListener(this);
+        UltimatesListener ultimatesListener = new UltimatesListener(this);
         pm.registerEvents(playerListener, this);
-        pm.registerEvents(new BlockListener(this), this);
+        pm.registerEvents(blockListener, this);
         pm.registerEvents(new EntityListener(this), this);
         pm.registerEvents(new InventoryListener(this), this);
-        pm.registerEvents(new UltimatesListener(this), this);
+        pm.registerEvents(ultimatesListener, this);
+        
+        // Events handled by several listeners are resolved once and routed by game mode
+        gameEventRouter = new GameEventRouter(this);
+        playerListener.registerRoutes(gameEventRouter);
+        blockListener.registerRoutes(gameEventRouter);
+        ultimatesListener.registerRoutes(gameEventRouter);
+        ultimatesManager.registerRoutes(gameEventRouter);
+        pm.registerEvents(gameEventRouter, this);
         pm.registerEvents(new BlockPhysicsListener(this), this); // Register the new block physics listener
         // The VillagerManager already registers itself as a listener in its constructor
         
@@ -183,10 +226,46 @@ public final class BeaconLabsBW extends JavaPlugin {
         config.addDefault("generators.gold.interval", 5);
         config.addDefault("generators.emerald.interval", 15);
         config.addDefault("generators.diamond.interval", 30);
+        // Generator tiers: seconds after the start, and the interval (seconds, fractions allowed) per tier
+        config.addDefault("generators.tier-2-time", 360);
+        config.addDefault("generators.tier-3-time", 720);
+        config.addDefault("generators.emerald.tier-2-interval", 12);
+        config.addDefault("generators.emerald.tier-3-interval", 8);
+        config.addDefault("generators.diamond.tier-2-interval", 23);
+        config.addDefault("generators.diamond.tier-3-interval", 12);
+        config.addDefault("generators.max-millis-per-tick", 2); // Time budget for all generators together
+        // Generators grow one item stack up to this amount instead of dropping new items
+        config.addDefault("generators.iron.max-stack", 48);
+        config.addDefault("generators.gold.max-stack", 16);
+        config.addDefault("generators.emerald.max-stack", 2);
+        config.addDefault("generators.diamond.max-stack", 4);
+        // Team generators put resources straight into the inventories of team members standing on them
+        config.addDefault("generators.team.virtual-pickup", false);
+        config.addDefault("generators.team.pickup-radius", 1.5);
         
         // Team settings
         config.addDefault("teams.max-players", 4);
         
+        // Padding around spawns, beds and generators for arenas without an explicit region
+        config.addDefault("arena.region-padding", 24);
+        // Run every game in its own copy of the arena world (allows concurrent games per arena)
+        config.addDefault("arena.instancing", false);
+        
+        // Lobbies waiting for players at the same time, a new one opens as soon as one fills
+        config.addDefault("matchmaking.max-open-lobbies", 3);
+        
+        // Chunks loaded during the lobby countdown (radius around team spawns, chunks per tick)
+        config.addDefault("chunks.preload-radius", 2);
+        config.addDefault("chunks.preload-per-tick", 4);
+        
+        // Particles are only sent to players within this radius, at most max-per-tick per game
+        config.addDefault("particles.view-radius", 32);
+        config.addDefault("particles.max-per-tick", 400);
+        
+        // Arena restoration settings (block/entity operations per tick and time budget per tick)
+        config.addDefault("restoration.ops-per-tick", 500);
+        config.addDefault("restoration.max-millis-per-tick", 5);
+        
         saveConfig();
     }
 
@@ -0,0 +1,325 @@
+package org.bcnlab.beaconLabsBW.arena;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bcnlab.beaconLabsBW.arena.model.Arena;
+import org.bcnlab.beaconLabsBW.arena.model.GeneratorData;
+import org.bcnlab.beaconLabsBW.arena.model.SerializableLocation;
+import org.bcnlab.beaconLabsBW.arena.model.TeamData;
+import org.bcnlab.beaconLabsBW.shop.ShopVillagerData;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.WorldCreator;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Creates per-game copies of arena worlds so one arena can host several matches at once.
+ * The arena's own world folder acts as the template and is never modified by instances.
+ */
+public class ArenaInstanceManager {
+
+    // Files that must not be copied into an instance (the server regenerates them)
+    private static final Set<String> SKIPPED_FILES = Set.of("uid.dat", "session.lock");
+    private static final String INSTANCE_PREFIX = "bw_instance_";
+
+    private final BeaconLabsBW plugin;
+    private final Gson gson;
+    private final AtomicInteger instanceCounter = new AtomicInteger();
+    // Loaded template worlds that are being copied, only touched on the main thread
+    private final Map<String, CopyingTemplate> copyingTemplates = new HashMap<>();
+
+    public ArenaInstanceManager(BeaconLabsBW plugin) {
+        this.plugin = plugin;
+        this.gson = new GsonBuilder()
+            .excludeFieldsWithoutExposeAnnotation()
+            .create();
+        deleteStaleInstances();
+    }
+
+    /**
+     * Delete instance worlds left on disk by a crash or a killed server.
+     * Instance names are numbered from 1 again after a restart, so the counter is moved past
+     * every stale instance and a new copy never lands in a folder that is still being deleted.
+     */
+    private void deleteStaleInstances() {
+        File[] folders = Bukkit.getWorldContainer().listFiles(file -> file.isDirectory() && file.getName().startsWith(INSTANCE_PREFIX));
+        if (folders == null) {
+            return;
+        }
+
+        int deleted = 0;
+        for (File folder : folders) {
+            String name = folder.getName();
+            try {
+                int id = Integer.parseInt(name.substring(name.lastIndexOf('_') + 1));
+                instanceCounter.accumulateAndGet(id, Math::max);
+            } catch (NumberFormatException e) {
+                // Not numbered by us, still an instance folder
+            }
+
+            // Another plugin may have loaded it, leave worlds that are in use alone
+            if (Bukkit.getWorld(name) != null) {
+                continue;
+            }
+            deleteFolderAsync(folder.toPath());
+            deleted++;
+        }
+
+        if (deleted > 0) {
+            plugin.getLogger().info("[Instances] Deleting " + deleted + " stale instance worlds");
+        }
+    }
+
+    /**
+     * Check if instanced arenas are enabled in the config
+     *
+     * @return true if games should run in copied worlds
+     */
+    public boolean isEnabled() {
+        return plugin.getConfigManager().isInstancingEnabled();
+    }
+
+    /**
+     * Copy the template world of an arena and load it as a new instance.
+     * The world files are copied asynchronously, the callback runs on the main thread.
+     *
+     * @param template The arena to copy
+     * @param callback Receives the instance arena, or null if the copy failed
+     */
+    public void createInstance(Arena template, Consumer<Arena> callback) {
+        File templateFolder = new File(Bukkit.getWorldContainer(), template.getWorldName());
+        if (!templateFolder.isDirectory()) {
+            plugin.getLogger().warning("[Instances] Template world folder not found: " + templateFolder.getPath());
+            callback.accept(null);
+            return;
+        }
+
+        // Flush the template to disk and keep autosaves from rewriting region files while they are copied
+        World templateWorld = Bukkit.getWorld(template.getWorldName());
+        if (templateWorld != null) {
+            templateWorld.save();
+            pauseAutoSave(templateWorld);
+        }
+
+        int instanceId = instanceCounter.incrementAndGet();
+        String instanceName = template.getName() + "-" + instanceId;
+        String instanceWorldName = INSTANCE_PREFIX + template.getName().toLowerCase() + "_" + instanceId;
+        File instanceFolder = new File(Bukkit.getWorldContainer(), instanceWorldName);
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            long start = System.currentTimeMillis();
+            try {
+                copyWorldFolder(templateFolder.toPath(), instanceFolder.toPath());
+            } catch (IOException e) {
+                plugin.getLogger().severe("[Instances] Failed to copy world " + template.getWorldName() + ": " + e.getMessage());
+                deleteFolderQuietly(instanceFolder.toPath());
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    resumeAutoSave(template.getWorldName());
+                    callback.accept(null);
+                });
+                return;
+            }
+            long copyMillis = System.currentTimeMillis() - start;
+
+            // Worlds can only be loaded on the main thread
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                resumeAutoSave(template.getWorldName());
+                World world = new WorldCreator(instanceWorldName).createWorld();
+                if (world == null) {
+                    plugin.getLogger().severe("[Instances] Failed to load instance world " + instanceWorldName);
+                    deleteFolderAsync(instanceFolder.toPath());
+                    callback.accept(null);
+                    return;
+                }
+                world.setAutoSave(false);
+
+                Arena instance = copyArena(template, instanceName, world.getName());
+                plugin.getLogger().info("[Instances] Created " + instanceWorldName + " from " + template.getWorldName() + " (copied in " + copyMillis + "ms)");
+                callback.accept(instance);
+            });
+        });
+    }
+
+    /**
+     * Turn off autosave of a template world while it is being copied.
+     * Copies can overlap, so autosave is only restored once the last one has finished.
+     *
+     * @param templateWorld The loaded template world
+     */
+    private void pauseAutoSave(World templateWorld) {
+        String worldName = templateWorld.getName();
+        CopyingTemplate copying = copyingTemplates.get(worldName);
+        if (copying == null) {
+            copying = new CopyingTemplate(templateWorld.isAutoSave());
+            copyingTemplates.put(worldName, copying);
+            templateWorld.setAutoSave(false);
+        }
+        copying.copies++;
+    }
+
+    /**
+     * Restore autosave of a template world once no copy of it is running anymore
+     *
+     * @param worldName The template world name
+     */
+    private void resumeAutoSave(String worldName) {
+        CopyingTemplate copying = copyingTemplates.get(worldName);
+        if (copying == null || --copying.copies > 0) {
+            return;
+        }
+        copyingTemplates.remove(worldName);
+
+        World templateWorld = Bukkit.getWorld(worldName);
+        if (templateWorld != null) {
+            templateWorld.setAutoSave(copying.autoSave);
+        }
+    }
+
+    /**
+     * Unload and delete the world of an instance arena
+     *
+     * @param instance The instance arena
+     */
+    public void releaseInstance(Arena instance) {
+        if (instance == null || !instance.isInstance()) {
+            return;
+        }
+
+        World world = Bukkit.getWorld(instance.getWorldName());
+        File folder = world != null ? world.getWorldFolder() : new File(Bukkit.getWorldContainer(), instance.getWorldName());
+
+        if (world != null) {
+            // Nobody may remain in a world that is being unloaded
+            World fallback = Bukkit.getWorlds().get(0);
+            for (Player player : world.getPlayers()) {
+                player.teleport(fallback.getSpawnLocation());
+            }
+
+            plugin.getVillagerManager().removeArenaVillagers(instance.getName());
+
+            if (!Bukkit.unloadWorld(world, false)) {
+                plugin.getLogger().warning("[Instances] Could not unload instance world " + world.getName() + ", leaving its files in place");
+                return;
+            }
+        }
+
+        // Tasks can't be scheduled while the plugin is disabling, delete right away in that case
+        if (plugin.isEnabled()) {
+            deleteFolderAsync(folder.toPath());
+        } else {
+            deleteFolderQuietly(folder.toPath());
+        }
+        plugin.getLogger().info("[Instances] Released instance world " + instance.getWorldName());
+    }
+
+    /**
+     * Create a copy of the arena whose locations point at the instance world
+     */
+    private Arena copyArena(Arena template, String instanceName, String instanceWorldName) {
+        Arena instance = gson.fromJson(gson.toJson(template), Arena.class);
+        String templateWorldName = template.getWorldName();
+
+        instance.setName(instanceName);
+        instance.setWorldName(instanceWorldName);
+        instance.setTemplateName(template.getName());
+
+        retarget(instance.getLobbySpawn(), templateWorldName, instanceWorldName);
+        retarget(instance.getSpectatorSpawn(), templateWorldName, instanceWorldName);
+        for (TeamData team : instance.getTeams().values()) {
+            retarget(team.getSpawnLocation(), templateWorldName, instanceWorldName);
+            retarget(team.getBedLocation(), templateWorldName, instanceWorldName);
+        }
+        for (GeneratorData generator : instance.getGenerators().values()) {
+            retarget(generator.getLocation(), templateWorldName, instanceWorldName);
+        }
+        if (instance.getShopVillagers() != null) {
+            for (ShopVillagerData villager : instance.getShopVillagers().values()) {
+                retarget(villager.getLocation(), templateWorldName, instanceWorldName);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Point a location at the instance world if it was in the template world
+     * (locations in other worlds, e.g. a shared lobby, are left alone)
+     */
+    private void retarget(SerializableLocation location, String templateWorldName, String instanceWorldName) {
+        if (location != null && templateWorldName.equals(location.getWorldName())) {
+            location.setWorldName(instanceWorldName);
+        }
+    }
+
+    private void copyWorldFolder(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!SKIPPED_FILES.contains(file.getFileName().toString())) {
+                    Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.REPLACE_EXISTING);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void deleteFolderAsync(Path folder) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> deleteFolderQuietly(folder));
+    }
+
+    private void deleteFolderQuietly(Path folder) {
+        if (!Files.exists(folder)) {
+            return;
+        }
+
+        try {
+            Files.walkFileTree(folder, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            plugin.getLogger().warning("[Instances] Failed to delete " + folder + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Autosave state of a template world while copies of it are running
+     */
+    private static class CopyingTemplate {
+        private final boolean autoSave;
+        private int copies = 0;
+
+        CopyingTemplate(boolean autoSave) {
+            this.autoSave = autoSave;
+        }
+    }
+}
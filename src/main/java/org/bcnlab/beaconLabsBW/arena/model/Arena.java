@@ -5,7 +5,9 @@ import lombok.Data;
 import org.bukkit.Location;
 import org.bukkit.World;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.bcnlab.beaconLabsBW.shop.ShopVillagerData;
@@ -46,8 +48,12 @@ public class Arena {
     @Expose
     private Map<String, ShopVillagerData> shopVillagers = new HashMap<>();
     
+    @Expose
+    private ArenaRegion region; // Optional, computed from spawns, beds and generators when not set
+    
     // Transient properties (not serialized)
     private transient World world;
+    private transient String templateName; // Set on per-game copies of an arena
     
     /**
      * Creates a new BedWars arena with the specified name
@@ -60,6 +66,15 @@ public class Arena {
         this.worldName = worldName;
     }
     
+    /**
+     * Check if this is a per-game copy running in its own instance world
+     * 
+     * @return true if this arena is an instance
+     */
+    public boolean isInstance() {
+        return templateName != null;
+    }
+    
     /**
      * Add a team to this arena
      * 
@@ -80,6 +95,43 @@ public class Arena {
         return teams.get(teamName);
     }
     
+    /**
+     * Compute a region enclosing all team spawns, beds and generators
+     * 
+     * @param padding Blocks to add on each side
+     * @return The computed region, or null if the arena has no locations yet
+     */
+    public ArenaRegion computeRegion(int padding) {
+        ArenaRegion computed = null;
+        
+        List<SerializableLocation> points = new ArrayList<>();
+        for (TeamData team : teams.values()) {
+            points.add(team.getSpawnLocation());
+            points.add(team.getBedLocation());
+        }
+        for (GeneratorData generator : generators.values()) {
+            points.add(generator.getLocation());
+        }
+        
+        for (SerializableLocation point : points) {
+            if (point == null) continue;
+            
+            int x = (int) Math.floor(point.getX());
+            int y = (int) Math.floor(point.getY());
+            int z = (int) Math.floor(point.getZ());
+            if (computed == null) {
+                computed = new ArenaRegion(x, y, z, x, y, z);
+            } else {
+                computed.include(x, y, z);
+            }
+        }
+        
+        if (computed != null) {
+            computed.expand(padding);
+        }
+        return computed;
+    }
+    
     /**
      * Checks if the arena is fully configured and ready to play
      * 
@@ -0,0 +1,93 @@
+package org.bcnlab.beaconLabsBW.arena.model;
+
+import com.google.gson.annotations.Expose;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bukkit.block.Block;
+import org.bukkit.util.BoundingBox;
+
+/**
+ * An axis-aligned block region enclosing an arena (bounds are inclusive)
+ */
+@Data
+@NoArgsConstructor
+public class ArenaRegion {
+
+    @Expose
+    private int minX;
+
+    @Expose
+    private int minY;
+
+    @Expose
+    private int minZ;
+
+    @Expose
+    private int maxX;
+
+    @Expose
+    private int maxY;
+
+    @Expose
+    private int maxZ;
+
+    /**
+     * Create a region spanning two corners in any order
+     */
+    public ArenaRegion(int x1, int y1, int z1, int x2, int y2, int z2) {
+        this.minX = Math.min(x1, x2);
+        this.minY = Math.min(y1, y2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxY = Math.max(y1, y2);
+        this.maxZ = Math.max(z1, z2);
+    }
+
+    /**
+     * Grow the region so it contains the given point
+     */
+    public void include(int x, int y, int z) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+        maxZ = Math.max(maxZ, z);
+    }
+
+    /**
+     * Grow the region by the same amount on every side
+     *
+     * @param padding Blocks to add on each side
+     */
+    public void expand(int padding) {
+        minX -= padding;
+        minY -= padding;
+        minZ -= padding;
+        maxX += padding;
+        maxY += padding;
+        maxZ += padding;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+
+    public boolean contains(Block block) {
+        return contains(block.getX(), block.getY(), block.getZ());
+    }
+
+    /**
+     * Convert to a Bukkit bounding box covering every block in the region
+     *
+     * @return The bounding box
+     */
+    public BoundingBox toBoundingBox() {
+        return new BoundingBox(minX, minY, minZ, maxX + 1, maxY + 1, maxZ + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + minX + ", " + minY + ", " + minZ + ") -> (" + maxX + ", " + maxY + ", " + maxZ + ")";
+    }
+}
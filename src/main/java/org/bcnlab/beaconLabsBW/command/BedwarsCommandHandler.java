@@ -2,6 +2,7 @@ package org.bcnlab.beaconLabsBW.command;
 
 import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bcnlab.beaconLabsBW.arena.model.Arena;
+import org.bcnlab.beaconLabsBW.arena.model.ArenaRegion;
 import org.bcnlab.beaconLabsBW.arena.model.GeneratorData;
 import org.bcnlab.beaconLabsBW.arena.model.SerializableLocation;
 import org.bcnlab.beaconLabsBW.arena.model.TeamData;
@@ -22,6 +23,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -34,6 +36,9 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
     
     private final BeaconLabsBW plugin;
     
+    // First region corner selected by each editing player
+    private final Map<UUID, Location> regionCorners = new ConcurrentHashMap<>();
+    
     public BedwarsCommandHandler(BeaconLabsBW plugin) {
         this.plugin = plugin;
     }
@@ -65,6 +70,7 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
             case "setbed" -> handleSetBed(player, args);
             case "setlobby" -> handleSetLobby(player);
             case "setspectator" -> handleSetSpectator(player);
+            case "setregion" -> handleSetRegion(player, args);
             case "addteam" -> handleAddTeam(player, args);
             case "addgenerator" -> handleAddGenerator(player, args);
             case "removegenerator" -> handleRemoveGenerator(player, args);
@@ -130,6 +136,7 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
             MessageUtils.sendMessage(player, "\n&e&lLocation Setup:");
             MessageUtils.sendMessage(player, "&6/bw setlobby &7- Set the main lobby");
             MessageUtils.sendMessage(player, "&6/bw setspectator &7- Set spectator spawn");
+            MessageUtils.sendMessage(player, "&6/bw setregion <pos1|pos2|auto|clear> &7- Set the arena bounds");
             
             // Shop villagers section
             MessageUtils.sendMessage(player, "\n&e&lShop Villagers:");
@@ -145,6 +152,7 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
             MessageUtils.sendMessage(player, "&6/forceteam [player] <team> &7- Force a player onto a team");
             MessageUtils.sendMessage(player, "&6/forcemap <arena> &7- Switch the waiting lobby to a map");
             MessageUtils.sendMessage(player, "&6/forcestart &7- Reduce countdown timer to 3 seconds");
+            MessageUtils.sendMessage(player, "&6/bwdiag [clean] &7- Show game-owned tasks and leaked entities");
         }
         
         // Ultimate classes info
@@ -248,6 +256,8 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
             String status;
             if (plugin.getGameManager().getActiveGames().containsKey(name.toLowerCase())) {
                 status = "&aActive";
+            } else if (plugin.getGameManager().isRestoring(name)) {
+                status = "&6Restoring " + plugin.getGameManager().getRestoration(name).getProgressPercent() + "%";
             } else if (!arena.isConfigured()) {
                 status = "&cNot Configured";
             } else {
@@ -410,6 +420,64 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
         MessageUtils.sendMessage(player, plugin.getPrefix() + "&7Don't forget to use &e/bw save &7when done editing!");
     }
     
+    private void handleSetRegion(Player player, String[] args) {
+        if (!player.hasPermission("bedwars.edit")) {
+            MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou don't have permission to edit arenas.");
+            return;
+        }
+        
+        // Check if player is in edit mode
+        Arena arena = plugin.getArenaManager().getEditingArena(player);
+        if (arena == null) {
+            MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou must be in edit mode. Use /bw edit <arena>");
+            return;
+        }
+        
+        if (args.length < 2) {
+            MessageUtils.sendMessage(player, plugin.getPrefix() + "&cUsage: /bw setregion <pos1|pos2|auto|clear>");
+            return;
+        }
+        
+        switch (args[1].toLowerCase()) {
+            case "pos1" -> {
+                regionCorners.put(player.getUniqueId(), player.getLocation().getBlock().getLocation());
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&aFirst corner set. Use &e/bw setregion pos2 &aat the opposite corner.");
+                return;
+            }
+            case "pos2" -> {
+                Location first = regionCorners.remove(player.getUniqueId());
+                if (first == null || !first.getWorld().equals(player.getWorld())) {
+                    MessageUtils.sendMessage(player, plugin.getPrefix() + "&cSet the first corner with &e/bw setregion pos1 &cfirst.");
+                    return;
+                }
+                Location second = player.getLocation();
+                arena.setRegion(new ArenaRegion(first.getBlockX(), first.getBlockY(), first.getBlockZ(),
+                    second.getBlockX(), second.getBlockY(), second.getBlockZ()));
+            }
+            case "auto" -> {
+                ArenaRegion computed = arena.computeRegion(plugin.getConfigManager().getRegionPadding());
+                if (computed == null) {
+                    MessageUtils.sendMessage(player, plugin.getPrefix() + "&cAdd team spawns, beds or generators first.");
+                    return;
+                }
+                arena.setRegion(computed);
+            }
+            case "clear" -> {
+                arena.setRegion(null);
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&aCleared the region for arena &e" + arena.getName() + "&a. It will be computed automatically.");
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&7Don't forget to use &e/bw save &7when done editing!");
+                return;
+            }
+            default -> {
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cUsage: /bw setregion <pos1|pos2|auto|clear>");
+                return;
+            }
+        }
+        
+        MessageUtils.sendMessage(player, plugin.getPrefix() + "&aSet region for arena &e" + arena.getName() + " &7" + arena.getRegion());
+        MessageUtils.sendMessage(player, plugin.getPrefix() + "&7Don't forget to use &e/bw save &7when done editing!");
+    }
+    
     private void handleAddTeam(Player player, String[] args) {
         if (!player.hasPermission("bedwars.edit")) {
             MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou don't have permission to edit arenas.");
@@ -695,11 +763,8 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
             return;
         }
         
-        // Check if there's a waiting lobby already
-        Game waitingLobby = plugin.getGameManager().getWaitingLobby();
-        
-        // If arena specified and no waiting lobby exists, try to join that specific arena
-        if (args.length > 1 && waitingLobby == null && !plugin.getGameManager().haveRunningGames()) {
+        // If arena specified, try to join or open a lobby on that specific arena
+        if (args.length > 1) {
             String arenaName = args[1];
             Arena arena = plugin.getArenaManager().getArena(arenaName);
             
@@ -713,11 +778,12 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
                 return;
             }
             
-            // Start new game with this arena
+            // Start new game with this arena, or get its waiting lobby
             Game game = plugin.getGameManager().startGame(arena);
             
             if (game == null) {
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cFailed to start game. Arena might have issues.");
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cFailed to start game. Arena might be in use or have issues.");
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&7Use /bw join to join any open lobby.");
                 return;
             }
             
@@ -727,21 +793,8 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
             } else {
                 MessageUtils.sendMessage(player, plugin.getPrefix() + "&cCouldn't join game. It might be full or already started.");
             }
-        } else if (waitingLobby != null || plugin.getGameManager().haveRunningGames()) {
-            // There's already a game running or waiting, tell the player they can't specify an arena
-            if (args.length > 1) {
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cCannot specify arena when a game is already active.");
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&7Use /bw join to join the current game.");
-            }
-            
-            // Try to join the existing game
-            if (plugin.getGameManager().joinGame(player)) {
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&aJoined a BedWars game!");
-            } else {
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cCouldn't join game. It might be full, already started, or you were not previously in it.");
-            }
         } else {
-            // Find a suitable game
+            // Let the matchmaker find a suitable lobby
             if (plugin.getGameManager().joinGame(player)) {
                 MessageUtils.sendMessage(player, plugin.getPrefix() + "&aJoined a BedWars game!");
             } else {
@@ -931,15 +984,8 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
             return;
         }
         
-        // Remove from current team if any
-        String currentTeam = game.getPlayerTeam(target);
-        if (currentTeam != null) {
-            game.getTeams().get(currentTeam).remove(target.getUniqueId());
-        }
-        
-        // Add to new team
-        game.getPlayerTeams().put(target.getUniqueId(), teamName);
-        game.getTeams().computeIfAbsent(teamName, k -> ConcurrentHashMap.newKeySet()).add(target.getUniqueId());
+        // Move to the new team
+        game.setPlayerTeam(target, teamName);
         
         // Notify both players
         MessageUtils.sendMessage(target, plugin.getPrefix() + "&aYou have been assigned to team &e" + teamName);
@@ -981,7 +1027,7 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
         }
         
         // Check for an active waiting lobby
-        Game waitingLobby = plugin.getGameManager().getWaitingLobby();
+        Game waitingLobby = plugin.getGameManager().getWaitingLobby(player);
         if (waitingLobby == null || waitingLobby.getState() == GameState.RUNNING) {
             // If there's no waiting lobby or the game is running, just set the next arena
             plugin.getGameManager().setNextArena(arena);
@@ -1041,7 +1087,7 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
         }
         
         // Check for an active waiting lobby
-        Game waitingLobby = plugin.getGameManager().getWaitingLobby();
+        Game waitingLobby = plugin.getGameManager().getWaitingLobby(player);
         if (waitingLobby == null) {
             MessageUtils.sendMessage(player, plugin.getPrefix() + "&cThere is no waiting lobby to force start.");
             return;
@@ -1081,7 +1127,7 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
               List<String> commands = new ArrayList<>();
             if (sender.hasPermission("bedwars.admin")) {                commands.addAll(Arrays.asList(
                     "help", "create", "delete", "list", "edit", "setspawn", "setbed", 
-                    "setlobby", "setspectator", "addteam", "addgenerator", "removegenerator", 
+                    "setlobby", "setspectator", "setregion", "addteam", "addgenerator", "removegenerator", 
                     "save", "start", "stop", "shop", "upgrades"
                 ));
             } else {
@@ -1117,7 +1163,15 @@ public class BedwarsCommandHandler implements CommandExecutor, TabCompleter {
                             }
                         }
                     }
-                }            case "addgenerator" -> {
+                }
+                case "setregion" -> {
+                    for (String option : Arrays.asList("pos1", "pos2", "auto", "clear")) {
+                        if (option.startsWith(partial)) {
+                            completions.add(option);
+                        }
+                    }
+                }
+                case "addgenerator" -> {
                     // Generator types
                     for (String type : Arrays.asList("IRON", "GOLD", "EMERALD", "DIAMOND", "TEAM")) {
                         if (type.startsWith(partial.toUpperCase())) {
@@ -0,0 +1,110 @@
+package org.bcnlab.beaconLabsBW.command;
+
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bcnlab.beaconLabsBW.game.Game;
+import org.bcnlab.beaconLabsBW.game.GameResources;
+import org.bcnlab.beaconLabsBW.utils.MessageUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Entity;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Command handler for the /bwdiag command
+ * Reports the tasks and entities owned by each game and finds what outlived its game
+ */
+public class DiagnosticsCommand implements CommandExecutor, TabCompleter {
+
+    private final BeaconLabsBW plugin;
+
+    public DiagnosticsCommand(BeaconLabsBW plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("bedwars.admin")) {
+            MessageUtils.sendMessage(sender, plugin.getPrefix() + "&cYou don't have permission to view diagnostics.");
+            return true;
+        }
+
+        boolean clean = args.length > 0 && args[0].equalsIgnoreCase("clean");
+        Collection<Game> games = plugin.getGameManager().getActiveGames().values();
+
+        MessageUtils.sendMessage(sender, "&8&l=== &6&lBedWars Diagnostics &8&l===");
+
+        // What every running game currently owns
+        MessageUtils.sendMessage(sender, "&eActive games: &f" + games.size());
+        for (Game game : games) {
+            GameResources resources = game.getResources();
+            MessageUtils.sendMessage(sender, "&7- &f" + game.getArena().getName() + " &7(" + game.getState() + ") &7actions: &f"
+                + game.getTicker().getPendingCount() + " &7tasks: &f" + resources.getTaskCount()
+                + " &7entities: &f" + resources.getEntityCount());
+        }
+
+        // Plugin tasks not owned by a game are plugin-wide services or leaks, a steady climb means a leak
+        List<BukkitTask> pluginTasks = Bukkit.getScheduler().getPendingTasks().stream()
+            .filter(task -> task.getOwner() == plugin)
+            .collect(Collectors.toList());
+        List<Integer> unowned = new ArrayList<>();
+        for (BukkitTask task : pluginTasks) {
+            boolean owned = games.stream().anyMatch(game -> game.getResources().ownsTask(task.getTaskId()));
+            if (!owned) {
+                unowned.add(task.getTaskId());
+            }
+        }
+        MessageUtils.sendMessage(sender, "&ePending plugin tasks: &f" + pluginTasks.size()
+            + " &7(owned by games: &f" + (pluginTasks.size() - unowned.size()) + "&7, plugin-wide: &f" + unowned.size() + "&7)");
+        if (!unowned.isEmpty()) {
+            MessageUtils.sendMessage(sender, "&7  Plugin-wide task IDs: &f" + unowned.stream()
+                .limit(20)
+                .map(String::valueOf)
+                .collect(Collectors.joining(", ")) + (unowned.size() > 20 ? " ..." : ""));
+        }
+
+        // Entities tagged for a game that no longer exists, or unmanaged shop villagers
+        int orphaned = 0;
+        for (World world : Bukkit.getWorlds()) {
+            int orphanedInWorld = 0;
+            for (Entity entity : world.getEntities()) {
+                if (plugin.getGameManager().isStrayEntity(entity)) {
+                    orphanedInWorld++;
+                    if (clean) {
+                        entity.remove();
+                    }
+                }
+            }
+            if (orphanedInWorld > 0) {
+                MessageUtils.sendMessage(sender, "&7- &f" + world.getName() + "&7: &c" + orphanedInWorld + " &7orphaned entities");
+            }
+            orphaned += orphanedInWorld;
+        }
+        MessageUtils.sendMessage(sender, "&eOrphaned entities: " + (orphaned > 0 ? "&c" : "&f") + orphaned
+            + (clean && orphaned > 0 ? " &a(removed)" : ""));
+
+        // Leaks the ownership registry caught when games were torn down
+        MessageUtils.sendMessage(sender, "&eReleased at game end since startup: &f" + plugin.getGameManager().getReclaimedTasks()
+            + " &7tasks, &f" + plugin.getGameManager().getReclaimedEntities() + " &7entities");
+
+        if (orphaned > 0 && !clean) {
+            MessageUtils.sendMessage(sender, plugin.getPrefix() + "&7Use &e/bwdiag clean &7to remove orphaned entities.");
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String label, String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1 && "clean".startsWith(args[0].toLowerCase())) {
+            completions.add("clean");
+        }
+        return completions;
+    }
+}
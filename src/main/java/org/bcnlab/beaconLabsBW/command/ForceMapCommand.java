@@ -56,7 +56,7 @@ public class ForceMapCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         
-        Game currentWaitingLobby = plugin.getGameManager().getWaitingLobby();
+        Game currentWaitingLobby = plugin.getGameManager().getWaitingLobby(sender instanceof Player player ? player : null);
 
         // Condition for IMMEDIATE switch:
         // A waiting lobby exists, AND it's in WAITING or STARTING state.
@@ -74,7 +74,7 @@ public class ForceMapCommand implements CommandExecutor, TabCompleter {
             Set<UUID> currentPlayers = new HashSet<>(currentWaitingLobby.getPlayers());
             
             // End the current game (this should handle countdown cancellation if it's in STARTING state)
-            plugin.getGameManager().endGame(currentWaitingLobby); // This also nullifies GameManager.waitingLobby if it matches
+            plugin.getGameManager().endGame(currentWaitingLobby);
             
             // Start a new game with the specified arena
             Game newGame = plugin.getGameManager().startGame(targetArena);
@@ -33,7 +33,7 @@ public class ForceStartCommand implements CommandExecutor, TabCompleter {
         }
         
         // Check for an active waiting lobby
-        Game waitingLobby = plugin.getGameManager().getWaitingLobby();
+        Game waitingLobby = plugin.getGameManager().getWaitingLobby(sender instanceof Player player ? player : null);
         if (waitingLobby == null) {
             MessageUtils.sendMessage(sender, plugin.getPrefix() + "&cThere is no waiting lobby to force start.");
             return true;
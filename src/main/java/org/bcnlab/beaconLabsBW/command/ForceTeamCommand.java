@@ -15,7 +15,6 @@ import org.bukkit.entity.Player;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Command handler for the /forceteam command
@@ -84,15 +83,8 @@ public class ForceTeamCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         
-        // Remove from current team if any
-        String currentTeam = game.getPlayerTeam(target);
-        if (currentTeam != null) {
-            game.getTeams().get(currentTeam).remove(target.getUniqueId());
-        }
-        
-        // Add to new team
-        game.getPlayerTeams().put(target.getUniqueId(), teamName);
-        game.getTeams().computeIfAbsent(teamName, k -> ConcurrentHashMap.newKeySet()).add(target.getUniqueId());
+        // Move to the new team
+        game.setPlayerTeam(target, teamName);
         
         // Notify both players
         MessageUtils.sendMessage(target, plugin.getPrefix() + "&aYou have been assigned to team &e" + teamName);
@@ -2,6 +2,7 @@ package org.bcnlab.beaconLabsBW.config;
 
 import lombok.Getter;
 import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bcnlab.beaconLabsBW.generator.GeneratorType;
 import org.bukkit.configuration.file.FileConfiguration;
 
 /**
@@ -19,15 +20,47 @@ public class ConfigManager {
     private final int lobbyCountdown;
     private final int gameTime;
     
-    // Generator settings
-    private final int ironInterval;
-    private final int goldInterval;
-    private final int emeraldInterval;
-    private final int diamondInterval;
+    // Generator settings (intervals in ticks)
+    private final int ironIntervalTicks;
+    private final int goldIntervalTicks;
+    private final int emeraldIntervalTicks;
+    private final int diamondIntervalTicks;
+    private final int tierTwoTime;
+    private final int tierThreeTime;
+    private final int emeraldTierTwoIntervalTicks;
+    private final int emeraldTierThreeIntervalTicks;
+    private final int diamondTierTwoIntervalTicks;
+    private final int diamondTierThreeIntervalTicks;
+    private final int generatorMaxMillisPerTick;
+    private final int ironMaxStack;
+    private final int goldMaxStack;
+    private final int emeraldMaxStack;
+    private final int diamondMaxStack;
+    private final boolean teamVirtualPickup;
+    private final double teamPickupRadius;
     
     // Team settings
     private final int maxTeamPlayers;
     
+    // Arena settings
+    private final int regionPadding;
+    private final boolean instancingEnabled;
+    
+    // Matchmaking settings
+    private final int maxOpenLobbies;
+    
+    // Chunk preloading settings
+    private final int chunkPreloadRadius;
+    private final int chunkPreloadPerTick;
+    
+    // Particle settings
+    private final int particleViewRadius;
+    private final int particleBudgetPerTick;
+    
+    // Arena restoration settings
+    private final int restorationOpsPerTick;
+    private final int restorationMaxMillisPerTick;
+    
     public ConfigManager(BeaconLabsBW plugin) {
         this.plugin = plugin;
         this.config = plugin.getConfig();
@@ -38,12 +71,60 @@ public class ConfigManager {
         this.lobbyCountdown = config.getInt("settings.lobby-countdown", 30);
         this.gameTime = config.getInt("settings.game-time", 1200);
         
-        this.ironInterval = config.getInt("generators.iron.interval", 2);
-        this.goldInterval = config.getInt("generators.gold.interval", 5);
-        this.emeraldInterval = config.getInt("generators.emerald.interval", 15);
-        this.diamondInterval = config.getInt("generators.diamond.interval", 30);
+        // Intervals are configured in (possibly fractional) seconds
+        this.ironIntervalTicks = secondsToTicks(config.getDouble("generators.iron.interval", 2));
+        this.goldIntervalTicks = secondsToTicks(config.getDouble("generators.gold.interval", 5));
+        this.emeraldIntervalTicks = secondsToTicks(config.getDouble("generators.emerald.interval", 15));
+        this.diamondIntervalTicks = secondsToTicks(config.getDouble("generators.diamond.interval", 30));
+        this.tierTwoTime = config.getInt("generators.tier-2-time", 360);
+        this.tierThreeTime = config.getInt("generators.tier-3-time", 720);
+        this.emeraldTierTwoIntervalTicks = secondsToTicks(config.getDouble("generators.emerald.tier-2-interval", 12));
+        this.emeraldTierThreeIntervalTicks = secondsToTicks(config.getDouble("generators.emerald.tier-3-interval", 8));
+        this.diamondTierTwoIntervalTicks = secondsToTicks(config.getDouble("generators.diamond.tier-2-interval", 23));
+        this.diamondTierThreeIntervalTicks = secondsToTicks(config.getDouble("generators.diamond.tier-3-interval", 12));
+        this.generatorMaxMillisPerTick = config.getInt("generators.max-millis-per-tick", 2);
+        this.ironMaxStack = config.getInt("generators.iron.max-stack", 48);
+        this.goldMaxStack = config.getInt("generators.gold.max-stack", 16);
+        this.emeraldMaxStack = config.getInt("generators.emerald.max-stack", 2);
+        this.diamondMaxStack = config.getInt("generators.diamond.max-stack", 4);
+        this.teamVirtualPickup = config.getBoolean("generators.team.virtual-pickup", false);
+        this.teamPickupRadius = config.getDouble("generators.team.pickup-radius", 1.5);
         
         this.maxTeamPlayers = config.getInt("teams.max-players", 4);
+        
+        this.regionPadding = config.getInt("arena.region-padding", 24);
+        this.instancingEnabled = config.getBoolean("arena.instancing", false);
+        
+        this.maxOpenLobbies = config.getInt("matchmaking.max-open-lobbies", 3);
+        
+        this.chunkPreloadRadius = config.getInt("chunks.preload-radius", 2);
+        this.chunkPreloadPerTick = config.getInt("chunks.preload-per-tick", 4);
+        
+        this.particleViewRadius = config.getInt("particles.view-radius", 32);
+        this.particleBudgetPerTick = config.getInt("particles.max-per-tick", 400);
+        
+        this.restorationOpsPerTick = config.getInt("restoration.ops-per-tick", 500);
+        this.restorationMaxMillisPerTick = config.getInt("restoration.max-millis-per-tick", 5);
+    }
+    
+    /**
+     * Get the base interval of a generator type at a tier
+     * 
+     * @param type The generator type
+     * @param tier The generator tier (1-3, only diamond and emerald have tiers)
+     * @return The interval in ticks
+     */
+    public int getIntervalTicks(GeneratorType type, int tier) {
+        return switch (type) {
+            case IRON, TEAM -> ironIntervalTicks; // TEAM generator uses iron interval as base
+            case GOLD -> goldIntervalTicks;
+            case EMERALD -> tier >= 3 ? emeraldTierThreeIntervalTicks : tier == 2 ? emeraldTierTwoIntervalTicks : emeraldIntervalTicks;
+            case DIAMOND -> tier >= 3 ? diamondTierThreeIntervalTicks : tier == 2 ? diamondTierTwoIntervalTicks : diamondIntervalTicks;
+        };
+    }
+    
+    private static int secondsToTicks(double seconds) {
+        return Math.max(1, (int) Math.round(seconds * 20));
     }
     
     /**
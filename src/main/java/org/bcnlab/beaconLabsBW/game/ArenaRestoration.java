@@ -0,0 +1,183 @@
+package org.bcnlab.beaconLabsBW.game;
+
+import lombok.Getter;
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bcnlab.beaconLabsBW.utils.BlockPositionSet;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+
+/**
+ * Restores an arena after a game over several ticks.
+ * Each tick processes at most a configured number of operations and stops early
+ * once the per-tick time budget is used up, so large cleanups don't lag the server.
+ * Entities are not part of it, the game removes the ones it owns when it is cleaned up.
+ */
+public class ArenaRestoration extends BukkitRunnable {
+
+    /**
+     * Restoration stages, processed in order
+     */
+    public enum Stage {
+        BLOCKS,
+        FIRE,
+        BEDS,
+        DONE
+    }
+
+    private final BeaconLabsBW plugin;
+    private final Game game;
+    private final World world;
+    private final int opsPerTick;
+    private final long budgetNanos;
+
+    // Work snapshots, taken when the restoration is created
+    private final long[] placedBlocks;
+    private final long[] fireBlocks;
+
+    @Getter
+    private Stage stage = Stage.BLOCKS;
+    private int cursor = 0;
+    @Getter
+    private int completedOps = 0;
+    @Getter
+    private final int totalOps;
+    private int ticks = 0;
+
+    /**
+     * Create a restoration for a finished game
+     *
+     * @param plugin The plugin instance
+     * @param game The game whose arena should be restored
+     */
+    public ArenaRestoration(BeaconLabsBW plugin, Game game) {
+        this.plugin = plugin;
+        this.game = game;
+        this.world = Bukkit.getWorld(game.getArena().getWorldName());
+        this.opsPerTick = Math.max(1, plugin.getConfigManager().getRestorationOpsPerTick());
+        this.budgetNanos = Math.max(1, plugin.getConfigManager().getRestorationMaxMillisPerTick()) * 1_000_000L;
+
+        this.placedBlocks = game.getPlacedBlocks().toArray();
+        game.getPlacedBlocks().clear();
+        this.fireBlocks = game.getFireBlocks().toArray();
+        game.getFireBlocks().clear();
+
+        if (world == null) {
+            plugin.getLogger().warning("[Game " + game.getGameId() + "] World '" + game.getArena().getWorldName() + "' not found, only resetting beds.");
+        }
+
+        // Beds count as a single operation
+        this.totalOps = placedBlocks.length + fireBlocks.length + 1;
+    }
+
+    /**
+     * Start processing the restoration on the next tick
+     */
+    public void start() {
+        plugin.getLogger().info("[Game " + game.getGameId() + "] Restoring arena " + game.getArena().getName() +
+            " (" + placedBlocks.length + " blocks, " + fireBlocks.length + " fires)");
+        runTaskTimer(plugin, 1L, 1L);
+    }
+
+    @Override
+    public void run() {
+        ticks++;
+        long deadline = System.nanoTime() + budgetNanos;
+        int ops = 0;
+
+        while (stage != Stage.DONE && ops < opsPerTick && System.nanoTime() < deadline) {
+            step();
+            ops++;
+        }
+
+        if (stage == Stage.DONE) {
+            cancel();
+            complete();
+        }
+    }
+
+    /**
+     * Run all remaining work immediately, e.g. when the plugin is disabling
+     */
+    public void finishNow() {
+        if (stage == Stage.DONE) {
+            return;
+        }
+
+        try {
+            cancel();
+        } catch (IllegalStateException e) {
+            // Not scheduled yet
+        }
+
+        while (stage != Stage.DONE) {
+            step();
+        }
+        complete();
+    }
+
+    /**
+     * Get the restoration progress
+     *
+     * @return Progress from 0 to 100
+     */
+    public int getProgressPercent() {
+        return totalOps == 0 ? 100 : (int) (completedOps * 100L / totalOps);
+    }
+
+    public boolean isComplete() {
+        return stage == Stage.DONE;
+    }
+
+    /**
+     * Perform a single restoration operation
+     */
+    private void step() {
+        switch (stage) {
+            case BLOCKS -> {
+                if (cursor >= placedBlocks.length) {
+                    nextStage();
+                    return;
+                }
+                long pos = placedBlocks[cursor++];
+                if (world != null) {
+                    world.getBlockAt(BlockPositionSet.unpackX(pos), BlockPositionSet.unpackY(pos),
+                            BlockPositionSet.unpackZ(pos)).setType(Material.AIR);
+                }
+            }
+            case FIRE -> {
+                if (cursor >= fireBlocks.length) {
+                    nextStage();
+                    return;
+                }
+                long pos = fireBlocks[cursor++];
+                if (world != null) {
+                    game.clearFireAt(world, pos);
+                }
+            }
+            case BEDS -> {
+                game.placeTeamBeds();
+                nextStage();
+            }
+            case DONE -> {
+                return;
+            }
+        }
+        completedOps++;
+    }
+
+    private void nextStage() {
+        stage = Stage.values()[stage.ordinal() + 1];
+        cursor = 0;
+    }
+
+    private void complete() {
+        completedOps = totalOps;
+        // Chunks stay ticketed while being restored, release them now
+        game.getChunkPreloader().release();
+        plugin.getLogger().info("[Game " + game.getGameId() + "] Arena " + game.getArena().getName() +
+            " restored over " + ticks + " ticks");
+        plugin.getGameManager().onArenaRestored(game);
+    }
+}
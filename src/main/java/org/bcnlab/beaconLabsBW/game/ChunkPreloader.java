@@ -0,0 +1,131 @@
+package org.bcnlab.beaconLabsBW.game;
+
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bcnlab.beaconLabsBW.arena.model.Arena;
+import org.bcnlab.beaconLabsBW.arena.model.GeneratorData;
+import org.bcnlab.beaconLabsBW.arena.model.SerializableLocation;
+import org.bcnlab.beaconLabsBW.arena.model.TeamData;
+import org.bcnlab.beaconLabsBW.shop.ShopVillagerData;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Loads and tickets the chunks an arena needs while the lobby counts down,
+ * a few chunks per tick, so the game start doesn't load them all at once.
+ */
+public class ChunkPreloader {
+
+    private final BeaconLabsBW plugin;
+    private final Arena arena;
+
+    private final Deque<Long> pending = new ArrayDeque<>();
+    private final Set<Long> ticketed = new LinkedHashSet<>();
+    private BukkitTask task;
+    private boolean started = false;
+
+    public ChunkPreloader(BeaconLabsBW plugin, Arena arena) {
+        this.plugin = plugin;
+        this.arena = arena;
+    }
+
+    /**
+     * Start loading the arena's chunks over the following ticks (only the first call has an effect)
+     */
+    public void start() {
+        if (started) return;
+        started = true;
+
+        World world = Bukkit.getWorld(arena.getWorldName());
+        if (world == null) return;
+
+        int radius = Math.max(0, plugin.getConfigManager().getChunkPreloadRadius());
+        int perTick = Math.max(1, plugin.getConfigManager().getChunkPreloadPerTick());
+
+        // Spawns first, since every player is teleported there on start
+        Set<Long> chunks = new LinkedHashSet<>();
+        for (TeamData team : arena.getTeams().values()) {
+            addArea(chunks, team.getSpawnLocation(), radius);
+        }
+        for (TeamData team : arena.getTeams().values()) {
+            addArea(chunks, team.getBedLocation(), 0);
+        }
+        for (GeneratorData generator : arena.getGenerators().values()) {
+            addArea(chunks, generator.getLocation(), 0);
+        }
+        if (arena.getShopVillagers() != null) {
+            for (ShopVillagerData villager : arena.getShopVillagers().values()) {
+                addArea(chunks, villager.getLocation(), 0);
+            }
+        }
+        pending.addAll(chunks);
+
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < perTick && !pending.isEmpty(); i++) {
+                    long key = pending.poll();
+                    // Adding a ticket loads the chunk and keeps it loaded until released
+                    if (world.addPluginChunkTicket(chunkX(key), chunkZ(key), plugin)) {
+                        ticketed.add(key);
+                    }
+                }
+
+                if (pending.isEmpty()) {
+                    plugin.getLogger().info("Preloaded " + ticketed.size() + " chunks for arena " + arena.getName());
+                    cancel();
+                    task = null;
+                }
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    /**
+     * Stop preloading and remove all chunk tickets
+     */
+    public void release() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        pending.clear();
+
+        World world = Bukkit.getWorld(arena.getWorldName());
+        if (world != null) {
+            for (long key : ticketed) {
+                world.removePluginChunkTicket(chunkX(key), chunkZ(key), plugin);
+            }
+        }
+        ticketed.clear();
+    }
+
+    private void addArea(Set<Long> chunks, SerializableLocation location, int radius) {
+        if (location == null) return;
+
+        int centerX = (int) Math.floor(location.getX()) >> 4;
+        int centerZ = (int) Math.floor(location.getZ()) >> 4;
+        for (int x = centerX - radius; x <= centerX + radius; x++) {
+            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                chunks.add(chunkKey(x, z));
+            }
+        }
+    }
+
+    private static long chunkKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static int chunkX(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int chunkZ(long key) {
+        return (int) key;
+    }
+}
@@ -3,28 +3,34 @@ package org.bcnlab.beaconLabsBW.game;
 import lombok.Getter;
 import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bcnlab.beaconLabsBW.arena.model.Arena;
+import org.bcnlab.beaconLabsBW.arena.model.ArenaRegion;
 import org.bcnlab.beaconLabsBW.game.ultimates.UltimateClass;
 import org.bcnlab.beaconLabsBW.arena.model.GeneratorData;
 import org.bcnlab.beaconLabsBW.arena.model.SerializableLocation;
 import org.bcnlab.beaconLabsBW.arena.model.TeamData;
 import org.bcnlab.beaconLabsBW.generator.ActiveGenerator;
+import org.bcnlab.beaconLabsBW.generator.DropExpiryQueue;
+import org.bcnlab.beaconLabsBW.generator.GeneratorTierSchedule;
+import org.bcnlab.beaconLabsBW.generator.GeneratorType;
+import org.bcnlab.beaconLabsBW.utils.BlockPositionSet;
 import org.bcnlab.beaconLabsBW.utils.MessageUtils;
+import org.bcnlab.beaconLabsBW.shop.TeamUpgrade;
+import org.bcnlab.beaconLabsBW.shop.TeamUpgradeLevels;
+import org.bcnlab.beaconLabsBW.utils.MaterialTraits;
 import org.bukkit.*;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.type.Bed;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.IronGolem;
 import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.LeatherArmorMeta;
 import org.bukkit.potion.PotionEffect;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,6 +44,7 @@ public class Game {
       private final BeaconLabsBW plugin;
     private final Arena arena;
     private final String gameId; // Unique identifier for this game instance
+    private final ArenaRegion region; // Arena bounds, null if the arena has no locations
       private GameState state = GameState.WAITING;
     private final Set<UUID> players = ConcurrentHashMap.newKeySet();
     private final Map<UUID, String> playerTeams = new ConcurrentHashMap<>();
@@ -51,13 +58,20 @@ public class Game {
     
     // Game state tracking
     private final Map<String, Boolean> bedStatus = new ConcurrentHashMap<>();
-    private final List<Block> placedBlocks = new ArrayList<>();
+    private final BlockPositionSet placedBlocks = new BlockPositionSet(); // Packed positions in the arena world
+    private final BlockPositionSet fireBlocks = new BlockPositionSet(64); // Positions where fire was created
     private final List<ActiveGenerator> activeGenerators = new ArrayList<>();
+    private GeneratorTierSchedule tierSchedule;
+    private final DropExpiryQueue dropExpiryQueue; // Generator drops live 900 game ticks (45 seconds)
     
-    // Tasks
-    private BukkitTask countdownTask;
-    private BukkitTask gameTimerTask;
-    private BukkitTask slowHealTask; // Add task variable
+    // Game clock, runs the countdown, game timer, slow heal and delayed actions of this game
+    private final GameTicker ticker;
+    private GameTicker.Action countdownAction;
+    private GameTicker.Action gameTimerAction;
+    private GameTicker.Action slowHealAction;
+    
+    // Tasks and entities owned by this game, released on cleanup
+    private final GameResources resources;
     private int countdown;
     private int gameTimer;
       // Game statistics tracking
@@ -65,8 +79,17 @@ public class Game {
     private final Map<UUID, Integer> playerBedBreaks = new ConcurrentHashMap<>();
     private final Map<UUID, Integer> playerDeaths = new ConcurrentHashMap<>();
     
+    // Team upgrades bought in this game, per team name
+    private final Map<String, TeamUpgradeLevels> teamUpgrades = new ConcurrentHashMap<>();
+    
     // Scoreboard manager
     private org.bcnlab.beaconLabsBW.utils.GameScoreboard scoreboardManager;
+    
+    // Arena restoration, started on cleanup
+    private ArenaRestoration restoration;
+    
+    // Loads and tickets arena chunks during the countdown
+    private final ChunkPreloader chunkPreloader;
       /**
      * Creates a new BedWars game
      *
@@ -79,6 +102,12 @@ public class Game {
         this.countdown = plugin.getConfigManager().getLobbyCountdown();
         this.gameTimer = plugin.getConfigManager().getGameTime();
         this.gameId = "game_" + System.currentTimeMillis() + "_" + arena.getName();
+        this.region = arena.getRegion() != null ? arena.getRegion()
+            : arena.computeRegion(plugin.getConfigManager().getRegionPadding());
+        this.chunkPreloader = new ChunkPreloader(plugin, arena);
+        this.ticker = new GameTicker(plugin, gameId);
+        this.dropExpiryQueue = new DropExpiryQueue(900L, ticker::getCurrentTick);
+        this.resources = new GameResources(plugin, gameId);
     }
     
     /**
@@ -105,6 +134,8 @@ public class Game {
         
         // Initialize scoreboard manager
         scoreboardManager = new org.bcnlab.beaconLabsBW.utils.GameScoreboard(plugin, this);
+        
+        resources.track(ticker.start());
     }
     
     /**
@@ -119,9 +150,43 @@ public class Game {
             if (location != null) {
                 ActiveGenerator generator = new ActiveGenerator(plugin, genData, this);
                 generator.start();
+                plugin.getGeneratorScheduler().register(generator, 1L);
                 activeGenerators.add(generator);
             }
         }
+        
+        // Tier upgrades of this match, checked by the game timer
+        tierSchedule = GeneratorTierSchedule.create(plugin.getConfigManager(), activeGenerators);
+    }
+    
+    /**
+     * Upgrade all generators of a type to a new tier
+     * 
+     * @param step The tier upgrade
+     */
+    private void upgradeGenerators(GeneratorTierSchedule.Step step) {
+        for (ActiveGenerator generator : activeGenerators) {
+            if (generator.getType() == step.type()) {
+                generator.setTier(step.tier());
+            }
+        }
+        
+        String name = step.type() == GeneratorType.DIAMOND ? "&bDiamond" : "&aEmerald";
+        broadcastMessage(name + " &egenerators have been upgraded to &cTier " + (step.tier() == 2 ? "II" : "III") + "&e!");
+    }
+    
+    /**
+     * Speed up the generators of a team after a forge upgrade
+     * 
+     * @param teamName The team name
+     * @param level The new forge level
+     */
+    public void onForgeUpgraded(String teamName, int level) {
+        for (ActiveGenerator generator : activeGenerators) {
+            if (generator.getType() == GeneratorType.TEAM && teamName.equalsIgnoreCase(generator.getTeam())) {
+                generator.setForgeLevel(level);
+            }
+        }
     }
     
     /**
@@ -129,6 +194,7 @@ public class Game {
      */
     private void stopGenerators() {
         for (ActiveGenerator generator : activeGenerators) {
+            plugin.getGeneratorScheduler().unregister(generator);
             generator.stop();
         }
         activeGenerators.clear();
@@ -161,6 +227,7 @@ public class Game {
         
         // Set up player scoreboard
         scoreboardManager.setupScoreboard(player);
+        scoreboardManager.markSharedDirty(); // Player count changed for everyone else
         
         // Announce join
         broadcastMessage("&e" + player.getName() + " &7joined the game! &8(" + players.size() + "/" + arena.getMaxPlayers() + ")");
@@ -199,6 +266,9 @@ public class Game {
         if (team != null) {
             teams.getOrDefault(team, Collections.emptySet()).remove(playerId);
         }
+        updateSession(playerId, session -> session.setTeam(null));
+        scoreboardManager.removeScoreboard(playerId);
+        scoreboardManager.markSharedDirty();
         
         // Announce leave if not a spectator
         if (!wasSpectator) {
@@ -211,6 +281,10 @@ public class Game {
         
         // Check for game end
         if (state == GameState.RUNNING) {
+            // Generator rates scale with the player count
+            for (ActiveGenerator generator : activeGenerators) {
+                generator.setPlayerCount(players.size());
+            }
             checkGameEnd();
         } else if (state == GameState.STARTING && players.size() < plugin.getConfigManager().getMinPlayers()) {
             cancelCountdown();
@@ -224,6 +298,7 @@ public class Game {
      */
     public void setCountdown(int countdown) {
         this.countdown = countdown;
+        scoreboardManager.markSharedDirty();
     }
     
     /**
@@ -234,42 +309,50 @@ public class Game {
         
         state = GameState.STARTING;
         countdown = plugin.getConfigManager().getLobbyCountdown();
+        scoreboardManager.markSharedDirty();
         
-        countdownTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (countdown <= 0) {
-                    // Start the game
-                    startGame();
-                    cancel();
-                    return;
-                }
-                
-                if (countdown <= 5 || countdown % 10 == 0) {
-                    broadcastMessage("&eGame starting in &c" + countdown + " &eseconds!");
-                    for (UUID playerId : players) {
-                        Player player = Bukkit.getPlayer(playerId);
-                        if (player != null) {
-                            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
-                        }
-                    }
+        // Load the arena's chunks while players wait instead of on the start tick
+        chunkPreloader.start();
+        
+        countdownAction = ticker.scheduleRepeating(20L, 20L, this::tickCountdown);
+    }
+    
+    /**
+     * Advance the lobby countdown by one second
+     */
+    private void tickCountdown() {
+        if (countdown <= 0) {
+            // Start the game
+            countdownAction.cancel();
+            startGame();
+            return;
+        }
+        
+        if (countdown <= 5 || countdown % 10 == 0) {
+            broadcastMessage("&eGame starting in &c" + countdown + " &eseconds!");
+            for (UUID playerId : players) {
+                Player player = Bukkit.getPlayer(playerId);
+                if (player != null) {
+                    player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 1.0f);
                 }
-                
-                countdown--;
             }
-        }.runTaskTimer(plugin, 20L, 20L);
+        }
+        
+        countdown--;
+        scoreboardManager.markSharedDirty();
     }
     
     /**
      * Cancel the countdown
      */
     private void cancelCountdown() {
-        if (countdownTask != null) {
-            countdownTask.cancel();
-            countdownTask = null;
+        if (countdownAction != null) {
+            countdownAction.cancel();
+            countdownAction = null;
         }
         
         state = GameState.WAITING;
+        scoreboardManager.markSharedDirty();
         broadcastMessage("&cNot enough players! Countdown cancelled.");
     }    /**
      * Start the game
@@ -296,7 +379,7 @@ public class Game {
         assignTeams();
         
         // Reset team upgrades
-        plugin.getTeamUpgradeManager().resetUpgrades();
+        teamUpgrades.clear();
         
         // Teleport players to their team spawns
         for (UUID playerId : players) {
@@ -353,7 +436,7 @@ public class Game {
 
         if (this.gameMode == GameMode.ULTIMATES) {
             this.ultimatesActive = false; // Ensure ultimates start as inactive
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            ticker.schedule(400L, () -> {
                 this.ultimatesActive = true;
                 broadcastMessage("&b&lULTIMATES ENABLED! &eYour ultimate abilities are now active!");
                 for (UUID playerId : players) {
@@ -374,25 +457,37 @@ public class Game {
     private void startGameTimer() {
         gameTimer = plugin.getConfigManager().getGameTime();
         
-        gameTimerTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (gameTimer <= 0) {
-                    // End the game due to time limit
-                    endGame(null); // No winner, it's a draw
-                    cancel();
-                    return;
-                }
-                
-                // Periodic events
-                if (gameTimer % 60 == 0) {
-                    int minutes = gameTimer / 60;
-                    broadcastMessage("&eGame ends in &c" + minutes + " &eminutes!");
-                }
-                
-                gameTimer--;
-            }
-        }.runTaskTimer(plugin, 20L, 20L);
+        gameTimerAction = ticker.scheduleRepeating(20L, 20L, this::tickGameTimer);
+    }
+    
+    /**
+     * Advance the game timer by one second
+     */
+    private void tickGameTimer() {
+        if (gameTimer <= 0) {
+            // End the game due to time limit
+            endGame(null); // No winner, it's a draw
+            return;
+        }
+        
+        // Remove generator drops that have been lying around too long
+        dropExpiryQueue.sweep();
+        
+        // Generator tier upgrades that are due
+        int elapsed = plugin.getConfigManager().getGameTime() - gameTimer;
+        GeneratorTierSchedule.Step step;
+        while (tierSchedule != null && (step = tierSchedule.poll(elapsed)) != null) {
+            upgradeGenerators(step);
+        }
+        
+        // Periodic events
+        if (gameTimer % 60 == 0) {
+            int minutes = gameTimer / 60;
+            broadcastMessage("&eGame ends in &c" + minutes + " &eminutes!");
+        }
+        
+        gameTimer--;
+        scoreboardManager.markSharedDirty();
     }
     
     /**
@@ -415,9 +510,11 @@ public class Game {
                 if (teams.get(team).size() < maxPerTeam) {
                     // Keep the player in their chosen team
                     it.remove();
+                    updateSession(playerId, session -> session.setTeam(team));
                 } else {
                     // Team is full, remove the preference
                     playerTeams.remove(playerId);
+                    updateSession(playerId, session -> session.setTeam(null));
                 }
             }
         }
@@ -453,6 +550,8 @@ public class Game {
             // Assign player to team
             teams.get(team).add(playerId);
             playerTeams.put(playerId, team);
+            String assignedTeam = team;
+            updateSession(playerId, session -> session.setTeam(assignedTeam));
             
             Player player = Bukkit.getPlayer(playerId);
             if (player != null) {
@@ -731,7 +830,7 @@ public class Game {
             player.setGameMode(org.bukkit.GameMode.SPECTATOR);
             
             // Schedule respawn
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            ticker.schedule(100L, () -> {
                 // Make sure they're still in the game
                 if (players.contains(player.getUniqueId())) {
                     respawnPlayer(player);
@@ -800,6 +899,11 @@ public class Game {
         
         // Add to spectators
         spectators.add(playerId);
+        updateSession(playerId, session -> {
+            session.setTeam(null);
+            session.setSpectator(true);
+        });
+        scoreboardManager.markSharedDirty(); // The team may be out now
         
         // Reset and set to spectator mode
         player.getInventory().clear();
@@ -847,15 +951,9 @@ public class Game {
                 // This will overwrite the basic team armor if better armor was saved.
                 List<ItemStack> toolsToRestore = new ArrayList<>();
                 for (ItemStack savedItem : permanentItems.values()) {
-                    Material type = savedItem.getType();
-                    if (type.name().contains("HELMET")) {
-                        player.getInventory().setHelmet(savedItem);
-                    } else if (type.name().contains("CHESTPLATE")) {
-                        player.getInventory().setChestplate(savedItem);
-                    } else if (type.name().contains("LEGGINGS")) {
-                        player.getInventory().setLeggings(savedItem);
-                    } else if (type.name().contains("BOOTS")) {
-                        player.getInventory().setBoots(savedItem);
+                    EquipmentSlot armorSlot = MaterialTraits.getArmorSlot(savedItem.getType());
+                    if (armorSlot != null) {
+                        player.getInventory().setItem(armorSlot, savedItem);
                     } else {
                         // It's a tool, add to list to be given to inventory
                         toolsToRestore.add(savedItem);
@@ -918,18 +1016,15 @@ public class Game {
         Material type = item.getType();
         // Check for tools
         boolean isTool = type == Material.SHEARS || 
-               type.name().contains("PICKAXE") || // Matches WOODEN_PICKAXE, STONE_PICKAXE, etc.
-               type.name().contains("AXE");      // Matches WOODEN_AXE, STONE_AXE, etc.
+               MaterialTraits.isPickaxe(type) ||
+               MaterialTraits.isAxe(type);
         if (isTool) return true;
 
         // Check for armor (based on material name, assuming standard armor types)
         // This relies on permanent armor from shop having appropriate material types.
-        boolean isArmor = type.name().contains("HELMET") ||
-               type.name().contains("CHESTPLATE") ||
-               type.name().contains("LEGGINGS") ||
-               type.name().contains("BOOTS");
+        boolean isArmor = MaterialTraits.isArmor(type);
         // Ensure it's not leather armor unless specifically marked permanent (which it isn't by default)
-        if (isArmor && type.name().startsWith("LEATHER_")) return false; // Default team armor is not "permanent"
+        if (isArmor && MaterialTraits.getArmorTier(type) == 1) return false; // Default team armor is not "permanent"
         
         return isArmor; // If it made it here and isArmor, it's non-leather armor
     }
@@ -945,6 +1040,7 @@ public class Game {
         
         // Set bed status to broken
         bedStatus.put(team, false);
+        scoreboardManager.markSharedDirty();
         
         // Record bed break stat
         recordBedBreak(player);
@@ -984,8 +1080,19 @@ public class Game {
      * @param block The block that was placed
      */
     public void recordPlacedBlock(Block block) {
-        if (block != null && state == GameState.RUNNING) {
-            placedBlocks.add(block);
+        if (block != null && state == GameState.RUNNING && isInArenaWorld(block)) {
+            placedBlocks.add(BlockPositionSet.pack(block));
+        }
+    }
+    
+    /**
+     * Stop tracking a placed block, e.g. after it was broken
+     * 
+     * @param block The block that was removed
+     */
+    public void removePlacedBlock(Block block) {
+        if (block != null && isInArenaWorld(block)) {
+            placedBlocks.remove(BlockPositionSet.pack(block));
         }
     }
     
@@ -996,7 +1103,39 @@ public class Game {
      * @return true if placed during the game, false otherwise
      */
     public boolean isPlacedBlock(Block block) {
-        return placedBlocks.contains(block);
+        if (placedBlocks.isEmpty() || !isInArenaWorld(block)) {
+            return false;
+        }
+        return placedBlocks.contains(BlockPositionSet.pack(block));
+    }
+    
+    /**
+     * Record a block that was set on fire so it can be cleared later
+     * 
+     * @param block The block position the fire occupies
+     */
+    public void recordFireBlock(Block block) {
+        if (block != null && isInArenaWorld(block)) {
+            fireBlocks.add(BlockPositionSet.pack(block));
+        }
+    }
+    
+    /**
+     * Check if a block lies inside the arena region
+     * Arenas without a region cover their whole world
+     * 
+     * @param block The block to check
+     * @return true if inside the arena
+     */
+    public boolean isInRegion(Block block) {
+        return region == null || region.contains(block);
+    }
+    
+    /**
+     * Check if a block is in this game's arena world
+     */
+    private boolean isInArenaWorld(Block block) {
+        return block.getWorld().getName().equals(arena.getWorldName());
     }
     
     /**
@@ -1031,22 +1170,11 @@ public class Game {
         
         state = GameState.ENDING;
         
-        // Cancel tasks
-        if (countdownTask != null) {
-            countdownTask.cancel();
-        }
-        if (gameTimerTask != null) {
-            gameTimerTask.cancel();
-        }
-        if (slowHealTask != null) { // Cancel slow heal task
-             slowHealTask.cancel();
-             plugin.getLogger().info("[Game " + gameId + "] Cancelled slow heal task.");
-        }
+        // Drop countdown, timer, slow heal, pending respawns and other scheduled game work
+        ticker.cancelAll();
           // Stop generators
-        for (ActiveGenerator generator : activeGenerators) {
-            generator.stop();
-        }
-        activeGenerators.clear();
+        stopGenerators();
+        dropExpiryQueue.clear(); // Remaining drops are removed with the arena
         
         // Stop scoreboard task
         if (scoreboardManager != null) {
@@ -1079,7 +1207,7 @@ public class Game {
             }
         }
           // Schedule game cleanup
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        ticker.schedule(200L, () -> {
             // Kick all players from the server
             for (UUID playerId : new ArrayList<>(players)) {
                 Player player = Bukkit.getPlayer(playerId);
@@ -1091,11 +1219,24 @@ public class Game {
                 }
             }
             
-            cleanup();
+            // GameManager.endGame cleans up the game and starts arena restoration
             plugin.getGameManager().endGame(this);
         }, 200L); // 10 seconds
     }
     
+    /**
+     * Apply a change to the session of a player in this game
+     * 
+     * @param playerId The player UUID
+     * @param change The change to apply
+     */
+    private void updateSession(UUID playerId, java.util.function.Consumer<PlayerSession> change) {
+        PlayerSession session = plugin.getGameManager().getSession(playerId);
+        if (session != null && session.isIn(this)) {
+            change.accept(session);
+        }
+    }
+    
     /**
      * Record a player kill
      * 
@@ -1104,6 +1245,7 @@ public class Game {
     public void recordKill(Player player) {
         if (player == null) return;
         playerKills.put(player.getUniqueId(), playerKills.getOrDefault(player.getUniqueId(), 0) + 1);
+        scoreboardManager.markPlayerDirty(player.getUniqueId());
     }
     
     /**
@@ -1114,6 +1256,7 @@ public class Game {
     public void recordDeath(Player player) {
         if (player == null) return;
         playerDeaths.put(player.getUniqueId(), playerDeaths.getOrDefault(player.getUniqueId(), 0) + 1);
+        scoreboardManager.markPlayerDirty(player.getUniqueId());
     }
     
     /**
@@ -1190,45 +1333,20 @@ public class Game {
     
     /**
      * Clean up the game
+     * Players are released immediately, the arena itself is restored over the following ticks
      */
     public void cleanup() {
-        // Restore placed blocks
-        for (Block block : placedBlocks) {
-            block.setType(Material.AIR);
-        }
-        placedBlocks.clear();
-
-        // Clear fire at the very end of cleanup as well
-        clearAllFireInArena();
+        // Nothing scheduled or spawned for this game may outlive it
+        ticker.stop();
+        // Shop villagers are owned by the game too, unregister them before they are removed
+        plugin.getVillagerManager().removeArenaVillagers(arena.getName());
+        resources.releaseAll();
         
-        // Remove dropped items and iron golems (Dream Defenders)
         World world = Bukkit.getWorld(arena.getWorldName());
         if (world != null) {
             // Restore natural regeneration (ensure this stays)
             world.setGameRule(GameRule.NATURAL_REGENERATION, true);
             plugin.getLogger().info("[Game " + gameId + "] Restored naturalRegeneration to true for world: " + world.getName());
-            
-            for (Entity entity : world.getEntities()) {
-                if (entity instanceof Item) {
-                    entity.remove();
-                }                // Remove all Dream Defenders (Iron Golems) in the game world
-                if (entity instanceof IronGolem) {
-                    // Check if it's from this game or just remove all golems for safety
-                    if (!entity.hasMetadata("game_id") || 
-                        (entity.hasMetadata("game_id") && gameId.equals(entity.getMetadata("game_id").get(0).asString()))) {
-                        // Cancel the timer task first if it exists
-                        if (entity.hasMetadata("timer_task")) {
-                            try {
-                                int taskId = entity.getMetadata("timer_task").get(0).asInt();
-                                Bukkit.getScheduler().cancelTask(taskId);
-                            } catch (Exception e) {
-                                // Ignore any errors with task cancellation
-                            }
-                        }
-                        entity.remove();
-                    }
-                }
-            }
         }
         
         // Return players to the server spawn
@@ -1250,9 +1368,23 @@ public class Game {
         playerTeams.clear();
         for (Set<UUID> teamPlayers : teams.values()) {
             teamPlayers.clear();
-        }        // Place team beds for the next game
-        placeTeamBeds();
+        }
         ultimatesActive = false; // Reset on cleanup
+        
+        // Instance worlds are simply thrown away
+        if (arena.isInstance()) {
+            placedBlocks.clear();
+            fireBlocks.clear();
+            chunkPreloader.release();
+            plugin.getArenaInstanceManager().releaseInstance(arena);
+            return;
+        }
+        
+        // Restore placed blocks, fire, entities and beds in tick-budgeted stages
+        if (restoration == null) {
+            restoration = new ArenaRestoration(plugin, this);
+            restoration.start();
+        }
     }
     
     /**
@@ -1329,7 +1461,27 @@ public class Game {
         if (player == null) return null;
         return playerTeams.get(player.getUniqueId());
     }
-    
+
+    /**
+     * Move a player to a team, e.g. when an admin forces a team before the game starts
+     *
+     * @param player The player
+     * @param teamName The new team
+     */
+    public void setPlayerTeam(Player player, String teamName) {
+        UUID playerId = player.getUniqueId();
+
+        // Remove from current team if any
+        String currentTeam = playerTeams.get(playerId);
+        if (currentTeam != null && teams.containsKey(currentTeam)) {
+            teams.get(currentTeam).remove(playerId);
+        }
+
+        playerTeams.put(playerId, teamName);
+        teams.computeIfAbsent(teamName, k -> ConcurrentHashMap.newKeySet()).add(playerId);
+        updateSession(playerId, session -> session.setTeam(teamName));
+    }
+
     /**
      * Reset and fix a bed at a specific location if it's broken or incorrectly placed.
      * This is used as a fallback when a player interacts with a bed and encounters an error.
@@ -1365,7 +1517,7 @@ public class Game {
                     for (int x = -1; x <= 1; x++) {
                         for (int z = -1; z <= 1; z++) {
                             Block block = centerBlock.getRelative(x, 0, z);
-                            if (block.getType().name().contains("BED")) {
+                            if (MaterialTraits.isBed(block.getType())) {
                                 block.setType(Material.AIR);
                             }
                         }
@@ -1442,7 +1594,7 @@ public class Game {
      * @param upgradeType The upgrade type
      * @param level The upgrade level
      */
-    public void applyTeamUpgrade(Player player, org.bcnlab.beaconLabsBW.shop.TeamUpgrade.UpgradeType upgradeType, int level) {
+    public void applyTeamUpgrade(Player player, TeamUpgrade.UpgradeType upgradeType, int level) {
         if (player == null || upgradeType == null || level <= 0) return;
         
         switch (upgradeType) {
@@ -1466,7 +1618,7 @@ public class Game {
      */
     private void applySharpnessUpgrade(Player player, int level) {
         for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && item.getType().name().contains("SWORD")) {
+            if (item != null && MaterialTraits.isSword(item.getType())) {
                 org.bukkit.inventory.meta.ItemMeta meta = item.getItemMeta();
                 if (meta != null) {
                     meta.addEnchant(org.bukkit.enchantments.Enchantment.SHARPNESS, level, true);
@@ -1525,22 +1677,31 @@ public class Game {
      * 
      * @param player The player
      */
-    private void applyTeamUpgrades(Player player) {
+    public void applyTeamUpgrades(Player player) {
         String teamName = playerTeams.get(player.getUniqueId());
         if (teamName == null) return;
         
-        org.bcnlab.beaconLabsBW.shop.TeamUpgradeManager upgradeManager = plugin.getTeamUpgradeManager();
+        TeamUpgradeLevels levels = getTeamUpgrades(teamName);
         
         // Apply all upgrade types
-        for (org.bcnlab.beaconLabsBW.shop.TeamUpgrade.UpgradeType type : 
-             org.bcnlab.beaconLabsBW.shop.TeamUpgrade.UpgradeType.values()) {
-            int level = upgradeManager.getUpgradeLevel(teamName, type);
+        for (TeamUpgrade.UpgradeType type : TeamUpgrade.UpgradeType.values()) {
+            int level = levels.get(type);
             if (level > 0) {
                 applyTeamUpgrade(player, type, level);
             }
         }
     }
     
+    /**
+     * Get the upgrades a team has bought in this game
+     * 
+     * @param teamName The team name
+     * @return The team's upgrade levels
+     */
+    public TeamUpgradeLevels getTeamUpgrades(String teamName) {
+        return teamUpgrades.computeIfAbsent(teamName, k -> new TeamUpgradeLevels());
+    }
+    
     /**
      * Broadcast a message to a specific team
      * 
@@ -1570,27 +1731,16 @@ public class Game {
     }
     
     /**
-     * Clean up any Dream Defenders in the game world
-     * This is used when starting a new game to remove any golems from previous games
+     * Remove the Dream Defenders owned by this game
+     * Golems of earlier games were removed with those games, or as strays when their chunk loaded
      */
     private void cleanupDreamDefenders() {
-        World world = Bukkit.getWorld(arena.getWorldName());
-        if (world != null) {
-            for (Entity entity : world.getEntities()) {
-                if (entity instanceof IronGolem) {
-                    // Remove all Iron Golems in the game world
-                    if (entity.hasMetadata("timer_task")) {
-                        int taskId = entity.getMetadata("timer_task").get(0).asInt();
-                        Bukkit.getScheduler().cancelTask(taskId);
-                    }
-                    entity.remove();
-                }
-            }
-        }
+        // Their timers stop once they are invalid
+        resources.removeEntities(IronGolem.class);
     }    /**
      * Place team beds at the start of the game
      */
-    private void placeTeamBeds() {
+    void placeTeamBeds() {
         // Reset bed status for the game
         for (String teamName : arena.getTeams().keySet()) {
             bedStatus.put(teamName, true); // All beds are intact at start
@@ -1612,7 +1762,7 @@ public class Game {
                         
                         // Check if the foot position is valid (not obstructed by solid blocks)
                         // If it's not valid, fall back to the original method
-                        if (footBlock.getType().isSolid() && !footBlock.getType().toString().contains("BED")) {
+                        if (footBlock.getType().isSolid() && !MaterialTraits.isBed(footBlock.getType())) {
                             direction = determineOptimalBedDirection(bedLocation);
                             footBlock = bedLocation.getBlock().getRelative(direction.getOppositeFace());
                             plugin.getLogger().info("Using fallback bed direction for " + teamName + " team");
@@ -1684,18 +1834,11 @@ public class Game {
     }
     
     /**
-     * Clear dropped items in the arena at game start
+     * Clear items dropped in the arena before the game started
      */
     private void clearArenaItems() {
-        World world = Bukkit.getWorld(arena.getWorldName());
-        if (world != null) {
-            for (Entity entity : world.getEntities()) {
-                if (entity instanceof Item) {
-                    entity.remove();
-                }
-            }
-            plugin.getLogger().info("Cleared all dropped items in arena " + arena.getName());
-        }
+        int removed = resources.removeEntities(Item.class);
+        plugin.getLogger().info("Cleared " + removed + " dropped items in arena " + arena.getName());
     }    /**
      * Convert a yaw value to a BlockFace direction
      *
@@ -1743,7 +1886,7 @@ public class Game {
         // First look for walls to place bed against
         for (BlockFace face : directions) {
             Block relative = block.getRelative(face);
-            if (relative.getType().isSolid() && !relative.getType().toString().contains("BED")) {
+            if (relative.getType().isSolid() && !MaterialTraits.isBed(relative.getType())) {
                 // Return the opposite direction so the bed faces away from the wall
                 return face.getOppositeFace();
             }
@@ -1815,6 +1958,7 @@ public class Game {
             
             // Set new class
             playerUltimateClasses.put(playerId, ultimateClass);
+            updateSession(playerId, session -> session.setUltimateClass(ultimateClass));
             
             // Give new ultimate items
             Player player = Bukkit.getPlayer(playerId);
@@ -1939,7 +2083,7 @@ public class Game {
             case BUILDER:
                 // First remove any team wool they might already have
                 for (ItemStack item : player.getInventory().getContents()) {
-                    if (item != null && item.getType().name().contains("WOOL")) {
+                    if (item != null && MaterialTraits.isWool(item.getType())) {
                         player.getInventory().remove(item);
                     }
                 }
@@ -1972,9 +2116,12 @@ public class Game {
                 player.getWorld().dropItemNaturally(player.getLocation(), new ItemStack(Material.TNT, 1));
                 player.getWorld().playSound(player.getLocation(), Sound.ENTITY_TNT_PRIMED, 1.0f, 1.0f);
                 
-                // Notify nearby players
-                for (Player nearby : player.getLocation().getWorld().getPlayers()) {
-                    if (nearby.getLocation().distance(player.getLocation()) <= 10) {
+                // Notify nearby players of this game
+                Location deathLocation = player.getLocation();
+                for (UUID playerId : players) {
+                    Player nearby = Bukkit.getPlayer(playerId);
+                    if (nearby != null && nearby.getWorld().equals(deathLocation.getWorld())
+                            && nearby.getLocation().distanceSquared(deathLocation) <= 100) {
                         MessageUtils.sendMessage(nearby, "&c&lBOOM! &eA Demolition expert just died nearby!");
                     }
                 }
@@ -2047,31 +2194,45 @@ public class Game {
 
     // Method to clear fire
     private void clearAllFireInArena() {
+        if (fireBlocks.isEmpty()) {
+            return;
+        }
+        
         World world = Bukkit.getWorld(arena.getWorldName());
         if (world == null) {
             plugin.getLogger().warning("[Game " + gameId + "] Cannot clear fire: World '" + arena.getWorldName() + "' not found.");
             return;
         }
 
-        plugin.getLogger().info("[Game " + gameId + "] Attempting to clear fire in arena: " + arena.getName());
+        // Only visit positions where fire was created during this game
         int fireBlocksCleared = 0;
-        for (Chunk chunk : world.getLoadedChunks()) {
-            for (int x = 0; x < 16; x++) {
-                for (int y = world.getMinHeight(); y < world.getMaxHeight(); y++) { // Iterate through full world height in chunk
-                    for (int z = 0; z < 16; z++) {
-                        Block block = chunk.getBlock(x, y, z);
-                        if (block.getType() == Material.FIRE) {
-                            block.setType(Material.AIR);
-                            fireBlocksCleared++;
-                        }
-                    }
-                }
+        for (int i = 0; i < fireBlocks.size(); i++) {
+            if (clearFireAt(world, fireBlocks.get(i))) {
+                fireBlocksCleared++;
             }
         }
+        fireBlocks.clear();
+        
         if (fireBlocksCleared > 0) {
             plugin.getLogger().info("[Game " + gameId + "] Cleared " + fireBlocksCleared + " fire blocks from arena: " + arena.getName());
         }
     }
+    
+    /**
+     * Remove fire at a tracked position if it is still burning
+     * 
+     * @param world The arena world
+     * @param pos The packed block position
+     * @return true if fire was removed
+     */
+    boolean clearFireAt(World world, long pos) {
+        Block block = world.getBlockAt(BlockPositionSet.unpackX(pos), BlockPositionSet.unpackY(pos), BlockPositionSet.unpackZ(pos));
+        if (block.getType() == Material.FIRE) {
+            block.setType(Material.AIR);
+            return true;
+        }
+        return false;
+    }
 
     private void downgradeTools(Player player) {
         ItemStack[] contents = player.getInventory().getContents();
@@ -2134,31 +2295,28 @@ public class Game {
 
     // Add method to start the slow heal task
     private void startSlowHealTask() {
-        if (slowHealTask != null) {
-            slowHealTask.cancel();
+        if (slowHealAction != null) {
+            slowHealAction.cancel();
         }
         
-        slowHealTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (state != GameState.RUNNING) {
-                    cancel(); // Stop task if game isn't running
-                    return;
-                }
-                
-                for (UUID playerId : players) {
-                    Player player = Bukkit.getPlayer(playerId);
-                    if (player != null && !isSpectator(player) && player.getGameMode() == org.bukkit.GameMode.SURVIVAL) {
-                        // double maxHealth = player.getAttribute(Attribute.GENERIC_MAX_HEALTH).getValue(); // Old way
-                        double maxHealth = player.getMaxHealth(); // Use getMaxHealth() for broader compatibility
-                        if (player.getHealth() < maxHealth) {
-                            // Heal by 1 health point (half a heart)
-                            player.setHealth(Math.min(player.getHealth() + 1.0, maxHealth));
-                        }
+        slowHealAction = ticker.scheduleRepeating(100L, 100L, () -> { // Run every 5 seconds (100 ticks)
+            if (state != GameState.RUNNING) {
+                slowHealAction.cancel(); // Stop if game isn't running
+                return;
+            }
+            
+            for (UUID playerId : players) {
+                Player player = Bukkit.getPlayer(playerId);
+                if (player != null && !isSpectator(player) && player.getGameMode() == org.bukkit.GameMode.SURVIVAL) {
+                    // double maxHealth = player.getAttribute(Attribute.GENERIC_MAX_HEALTH).getValue(); // Old way
+                    double maxHealth = player.getMaxHealth(); // Use getMaxHealth() for broader compatibility
+                    if (player.getHealth() < maxHealth) {
+                        // Heal by 1 health point (half a heart)
+                        player.setHealth(Math.min(player.getHealth() + 1.0, maxHealth));
                     }
                 }
             }
-        }.runTaskTimer(plugin, 100L, 100L); // Run every 10 seconds (200 ticks)
+        });
         plugin.getLogger().info("[Game " + gameId + "] Started slow heal task.");
     }
 
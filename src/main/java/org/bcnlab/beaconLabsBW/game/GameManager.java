@@ -5,10 +5,13 @@ import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bcnlab.beaconLabsBW.arena.model.Arena;
 import org.bcnlab.beaconLabsBW.arena.model.GeneratorData;
 import org.bcnlab.beaconLabsBW.arena.model.TeamData;
+import org.bcnlab.beaconLabsBW.shop.ShopVillager;
 import org.bcnlab.beaconLabsBW.shop.ShopVillagerData;
 import org.bcnlab.beaconLabsBW.utils.MessageUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 
 import java.util.*;
@@ -25,10 +28,29 @@ public class GameManager {
     @Getter
     private final Map<String, Game> activeGames = new ConcurrentHashMap<>();
     
-    private final Map<UUID, Game> playerGameMap = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>(); // One session per online player
+    
+    // Arenas whose previous game is still being restored, keyed by arena name (lowercase)
+    private final Map<String, ArenaRestoration> restoringArenas = new ConcurrentHashMap<>();
+    
+    // Routes world-scoped events to their game; keyed by World identity, only touched on the main thread
+    private final Map<World, Game> worldGameIndex = new IdentityHashMap<>();
+    
+    // Places joining players and parties into the waiting lobbies
+    @Getter
+    private final Matchmaker matchmaker;
+    
+    private Arena nextArena = null;
+    
+    // Tasks and entities that were still alive when their game was torn down, since startup
+    @Getter
+    private int reclaimedTasks = 0;
+    @Getter
+    private int reclaimedEntities = 0;
     
     public GameManager(BeaconLabsBW plugin) {
         this.plugin = plugin;
+        this.matchmaker = new Matchmaker(plugin, this);
     }
     
     /**
@@ -126,12 +148,19 @@ public class GameManager {
             return null;
         }
         
+        // Arenas only become available again once restoration has finished
+        if (isRestoring(arena.getName())) {
+            plugin.getLogger().warning("Attempted to start game with arena that's still being restored: " + arena.getName());
+            return null;
+        }
+        
         Game game = new Game(plugin, arena);
         activeGames.put(arena.getName().toLowerCase(), game);
         game.setup();
+        indexGameWorld(game);
         
-        // Spawn villagers for this arena using the new delayed method
-        plugin.getVillagerManager().spawnArenaVillagersWithDelay(arena);
+        // Spawn villagers for this arena using the new delayed method, they belong to the game
+        plugin.getVillagerManager().spawnArenaVillagersWithDelay(game);
         
         plugin.getLogger().info("Started new BedWars game with arena: " + arena.getName());
         return game;
@@ -146,11 +175,12 @@ public class GameManager {
 
         String arenaNameKey = game.getArena().getName().toLowerCase();
         // Check if the game is actually in activeGames before trying to remove
-        if (!activeGames.containsKey(arenaNameKey) && playerGameMap.values().stream().noneMatch(g -> g.equals(game))) {
+        if (!activeGames.containsKey(arenaNameKey) && sessions.values().stream().noneMatch(s -> s.isIn(game))) {
             // If it's not in activeGames and no player is mapped to it, it might have already been ended.
             // We can still proceed with cleanup if needed, or just log and return.
-            plugin.getLogger().info("GameManager.endGame called for game " + game.getGameId() + " which is not in activeGames or playerGameMap.");
+            plugin.getLogger().info("GameManager.endGame called for game " + game.getGameId() + " which is not in activeGames or any player session.");
             // Optionally, ensure cleanup if game state indicates it hasn't been fully cleaned
+            unindexGameWorld(game);
             if (game.getState() != GameState.WAITING) { // Assuming WAITING is the truly cleaned state
                  game.cleanup(); // Ensure cleanup is called
             }
@@ -159,19 +189,129 @@ public class GameManager {
 
         plugin.getLogger().info("Ending game: " + game.getGameId() + " for arena: " + arenaNameKey);
         activeGames.remove(arenaNameKey);
+        unindexGameWorld(game);
         
-        // Remove player mappings
-        for (UUID playerId : game.getPlayers()) {
-            playerGameMap.remove(playerId);
+        // Remove player mappings (players and spectators)
+        for (PlayerSession session : sessions.values()) {
+            if (session.isIn(game)) {
+                session.leaveGame();
+            }
         }
         
-        // Clear waiting lobby reference if this was the waiting lobby
-        if (waitingLobby != null && waitingLobby.equals(game)) {
-            waitingLobby = null;
+        // Clean up the game; the arena stays unavailable until restoration completes
+        game.cleanup();
+        reclaimedTasks += game.getResources().getReclaimedTasks();
+        reclaimedEntities += game.getResources().getReclaimedEntities();
+        ArenaRestoration restoration = game.getRestoration();
+        if (restoration != null && !restoration.isComplete()) {
+            restoringArenas.put(arenaNameKey, restoration);
+        }
+    }
+    
+    /**
+     * Called by ArenaRestoration once a finished game's arena has been fully restored
+     * 
+     * @param game The game whose arena was restored
+     */
+    public void onArenaRestored(Game game) {
+        String arenaNameKey = game.getArena().getName().toLowerCase();
+        if (restoringArenas.remove(arenaNameKey, game.getRestoration())) {
+            plugin.getLogger().info("[GameManager] Arena " + game.getArena().getName() + " is available again");
+        }
+    }
+    
+    /**
+     * Check if an arena is still being restored after its last game
+     * 
+     * @param arenaName The arena name
+     * @return true if restoration is in progress
+     */
+    public boolean isRestoring(String arenaName) {
+        return restoringArenas.containsKey(arenaName.toLowerCase());
+    }
+    
+    /**
+     * Get the running restoration for an arena
+     * 
+     * @param arenaName The arena name
+     * @return The restoration, or null if the arena is not being restored
+     */
+    public ArenaRestoration getRestoration(String arenaName) {
+        return restoringArenas.get(arenaName.toLowerCase());
+    }
+    
+    /**
+     * Register the game's arena world in the world routing index
+     * 
+     * @param game The game to index
+     */
+    public void indexGameWorld(Game game) {
+        World world = Bukkit.getWorld(game.getArena().getWorldName());
+        if (world == null) {
+            plugin.getLogger().warning("[GameManager] World " + game.getArena().getWorldName() + " is not loaded, game " + game.getGameId() + " will not receive world events");
+            return;
         }
         
-        // Clean up the game
-        game.cleanup();
+        Game previous = worldGameIndex.put(world, game);
+        if (previous != null && previous != game) {
+            plugin.getLogger().warning("[GameManager] World " + world.getName() + " was already routed to game " + previous.getGameId());
+        }
+    }
+    
+    /**
+     * Remove all world routing entries pointing at the game
+     * 
+     * @param game The game to remove
+     */
+    private void unindexGameWorld(Game game) {
+        worldGameIndex.values().removeIf(indexed -> indexed == game);
+    }
+    
+    /**
+     * Get the active game running in a world
+     * 
+     * @param world The world
+     * @return The game or null if no game uses this world
+     */
+    public Game getGameByWorld(World world) {
+        if (world == null) return null;
+        return worldGameIndex.get(world);
+    }
+    
+    /**
+     * Check if an entity was spawned by the plugin for something that no longer exists,
+     * a game that has ended or a shop villager that is not managed anymore
+     * 
+     * @param entity The entity
+     * @return true if the entity should be removed
+     */
+    public boolean isStrayEntity(Entity entity) {
+        String ownerId = GameResources.getOwnerId(plugin, entity);
+        if (ownerId != null) {
+            return activeGames.values().stream().noneMatch(game -> game.getGameId().equals(ownerId));
+        }
+        return ShopVillager.isShopVillager(plugin, entity)
+            && plugin.getVillagerManager().getShopVillagerByUUID(entity.getUniqueId()) == null;
+    }
+    
+    /**
+     * Remove the stray entities among the given ones
+     * 
+     * @param entities The entities to check, e.g. those of a chunk that was just loaded
+     * @return The number of entities removed
+     */
+    public int removeStrayEntities(Collection<Entity> entities) {
+        int removed = 0;
+        for (Entity entity : entities) {
+            if (isStrayEntity(entity)) {
+                entity.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            plugin.getLogger().info("[GameManager] Removed " + removed + " entities left behind by ended games");
+        }
+        return removed;
     }
     
     /**
@@ -182,6 +322,11 @@ public class GameManager {
             MessageUtils.sendMessage(game.getPlayers(), plugin.getPrefix() + "&cGame ended - Server shutting down");
             endGame(game);
         }
+        
+        // Scheduled tasks won't run anymore, finish restoring arenas right away
+        for (ArenaRestoration restoration : new ArrayList<>(restoringArenas.values())) {
+            restoration.finishNow();
+        }
     }
     
     /**
@@ -200,11 +345,14 @@ public class GameManager {
             return false;
         }
         
+        // Map the session first, session updates made while the player is added would be dropped otherwise
+        PlayerSession session = getSession(player);
+        session.joinGame(game);
         if (game.addPlayer(player)) {
-            playerGameMap.put(player.getUniqueId(), game);
             return true;
         }
         
+        session.leaveGame();
         return false;
     }
     
@@ -216,7 +364,54 @@ public class GameManager {
      */
     public Game getPlayerGame(Player player) {
         if (player == null) return null;
-        return playerGameMap.get(player.getUniqueId());
+        PlayerSession session = sessions.get(player.getUniqueId());
+        return session != null ? session.getGame() : null;
+    }
+    
+    /**
+     * Get the session of an online player, hot event handlers should look it up once
+     * and read game, team, spectator state and ultimate class from it
+     * 
+     * @param player The player
+     * @return The session, or null if the player is offline
+     */
+    public PlayerSession getSession(Player player) {
+        if (player == null) return null;
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session == null && player.isOnline()) {
+            // Players that were online before the plugin was enabled have no session yet
+            session = createSession(player);
+        }
+        return session;
+    }
+    
+    /**
+     * Get the session of a player without creating one
+     * 
+     * @param playerId The player UUID
+     * @return The session, or null if there is none
+     */
+    public PlayerSession getSession(UUID playerId) {
+        return sessions.get(playerId);
+    }
+    
+    /**
+     * Create the session of a player that joined the server
+     * 
+     * @param player The player
+     * @return The session
+     */
+    public PlayerSession createSession(Player player) {
+        return sessions.computeIfAbsent(player.getUniqueId(), PlayerSession::new);
+    }
+    
+    /**
+     * Drop the session of a player that left the server
+     * 
+     * @param player The player
+     */
+    public void removeSession(Player player) {
+        sessions.remove(player.getUniqueId());
     }
     
     /**
@@ -232,12 +427,12 @@ public class GameManager {
         if (game == null) return false;
         
         game.removePlayer(player);
-        playerGameMap.remove(player.getUniqueId());
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session != null) {
+            session.leaveGame();
+        }
         return true;
     }
-      // Keep track of the active waiting lobby
-    private Game waitingLobby = null;
-    private Arena nextArena = null;
     
     /**
      * Choose a game for a player to join
@@ -255,62 +450,18 @@ public class GameManager {
             return false;
         }
         
-        // Check if there's already a waiting lobby game
-        if (waitingLobby != null && waitingLobby.getState() == GameState.WAITING) {
-            // Join the existing waiting lobby if it has space
-            if (waitingLobby.getPlayers().size() < waitingLobby.getArena().getMaxPlayers()) {
-                return addPlayerToGame(player, waitingLobby);
-            } else {
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cThe waiting lobby is full!");
-                return false;
-            }
-        } else if (waitingLobby != null && waitingLobby.getState() == GameState.STARTING) {
-            // Join the starting game if there's still space
-            if (waitingLobby.getPlayers().size() < waitingLobby.getArena().getMaxPlayers()) {
-                return addPlayerToGame(player, waitingLobby);
-            } else {
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cThe game is starting and is full!");
-                return false;
-            }
-        } else if (haveRunningGames()) {
-            // A game is running. Attempt to add the player as a spectator.
-            Game runningGame = findRunningGame();
-            if (runningGame != null) {
-                if (addSpectatorToGame(player, runningGame)) {
-                    // Successfully added as spectator
-                    return true;
-                } else {
-                    // Failed to add as spectator (e.g., already in game?)
-                    MessageUtils.sendMessage(player, plugin.getPrefix() + "&cCould not join the current game as a spectator.");
-                    return false;
-                }
-            } else {
-                // This case should technically not happen if haveRunningGames() is true,
-                // but handle it defensively.
-                plugin.getLogger().warning("haveRunningGames() was true, but findRunningGame() returned null.");
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cCould not find the running game to spectate.");
-                return false;
-            }
-        } else {
-            // No active waiting lobby or running game, create a new lobby.
-            waitingLobby = null; // Clear any old reference
-            
-            // Choose an arena for the new game
-            Arena arena = chooseNextArena();
-            if (arena == null) {
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cNo available arenas found!");
-                return false;
-            }
-            
-            Game newGame = startGame(arena);
-            if (newGame == null) {
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cFailed to start a new game!");
-                return false;
-            }
-            
-            waitingLobby = newGame;
-            return addPlayerToGame(player, newGame);
-        }
+        return matchmaker.join(Collections.singletonList(player));
+    }
+    
+    /**
+     * Choose a lobby for a party, all members are placed into the same lobby if it has room
+     * 
+     * @param party The party members
+     * @return true if at least one member joined
+     */
+    public boolean joinGame(List<Player> party) {
+        if (party == null || party.isEmpty()) return false;
+        return matchmaker.join(party);
     }
     
     /**
@@ -328,7 +479,7 @@ public class GameManager {
      *
      * @return The running Game instance, or null if no game is running.
      */
-    private Game findRunningGame() {
+    Game findRunningGame() {
         return activeGames.values().stream()
             .filter(game -> game.getState() == GameState.RUNNING)
             .findFirst()
@@ -336,13 +487,13 @@ public class GameManager {
     }
     
     /**
-     * Choose the next arena to use
+     * Choose the arena for a new lobby, only arenas without a game are considered
      * 
-     * @return The selected arena
+     * @return The selected arena, or null if every arena is in use
      */
-    private Arena chooseNextArena() {
+    Arena chooseNextArena() {
         if (nextArena != null && nextArena.isConfigured() && 
-            !activeGames.containsKey(nextArena.getName().toLowerCase())) {
+            !activeGames.containsKey(nextArena.getName().toLowerCase()) && !isRestoring(nextArena.getName())) {
             Arena selected = nextArena;
             nextArena = null;
             return selected;
@@ -352,9 +503,9 @@ public class GameManager {
         if (arenaNames.isEmpty()) {
             return null;
         }
-          // Convert to list for random access - arenas are available if:
+        // Convert to list for random access - arenas are available if:
         // 1. They are configured
-        // 2. They are either not in use OR they have a game in WAITING state with room
+        // 2. They are not in use, joinable lobbies are found by the matchmaker
         List<String> availableArenas = arenaNames.stream()
             .filter(name -> {
                 Arena arena = plugin.getArenaManager().getArena(name);
@@ -362,15 +513,13 @@ public class GameManager {
                     return false;
                 }
                 
-                // Check if the arena is already in use
-                Game existingGame = activeGames.get(name.toLowerCase());
-                if (existingGame == null) {
-                    return true; // Arena not in use, it's available
+                // Arenas still being restored from their last game are not available yet
+                if (isRestoring(name)) {
+                    return false;
                 }
                 
-                // If the existing game is in WAITING state and has room, consider it available
-                return existingGame.getState() == GameState.WAITING && 
-                       existingGame.getPlayers().size() < existingGame.getArena().getMaxPlayers();
+                // Check if the arena is already in use
+                return !activeGames.containsKey(name.toLowerCase());
             })
             .collect(Collectors.toList());
         
@@ -397,13 +546,28 @@ public class GameManager {
     }
     
     /**
-     * Get the current waiting lobby
+     * Get the fullest lobby that is still waiting for players
      * 
      * @return The waiting lobby game, or null if none
      */
     public Game getWaitingLobby() {
-        return waitingLobby;
+        return matchmaker.getFullestLobby();
     }
+    
+    /**
+     * Get the waiting lobby a command sender is in, falling back to the fullest lobby
+     * 
+     * @param player The player, may be null for the console
+     * @return The waiting lobby game, or null if none
+     */
+    public Game getWaitingLobby(Player player) {
+        Game game = getPlayerGame(player);
+        if (game != null && (game.getState() == GameState.WAITING || game.getState() == GameState.STARTING)) {
+            return game;
+        }
+        return getWaitingLobby();
+    }
+
 
     /**
      * Add a player directly as a spectator to a running game.
@@ -418,18 +582,22 @@ public class GameManager {
         }
 
         // Ensure player isn't already mapped to a game
-        if (playerGameMap.containsKey(player.getUniqueId())) {
+        PlayerSession session = getSession(player);
+        if (session.getGame() != null) {
             plugin.getLogger().warning("Attempted to add spectator " + player.getName() + " who is already mapped to a game.");
             return false;
         }
 
+        // Map the player to the game first so session updates made while adding are kept
+        session.joinGame(game);
+        session.setSpectator(true);
+
         // Attempt to add spectator via the Game object
         if (game.addSpectator(player)) {
-            // Map the player to the game they are spectating
-            playerGameMap.put(player.getUniqueId(), game);
             return true;
         } else {
             // Adding spectator failed (e.g., game not running, player already in game)
+            session.leaveGame();
             return false;
         }
     }
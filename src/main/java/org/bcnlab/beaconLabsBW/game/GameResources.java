@@ -0,0 +1,225 @@
+package org.bcnlab.beaconLabsBW.game;
+
+import lombok.Getter;
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Entity;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Everything a game owns outside of its own state: Bukkit tasks and spawned entities.
+ * Teardown cancels and removes exactly what was registered instead of searching for it,
+ * and anything still alive at that point is counted so leaks show up in the diagnostics.
+ * Owned entities carry the game ID in their persistent data, so entities left behind by
+ * a crash are still recognised when their chunk is loaded again.
+ */
+public class GameResources {
+
+    // Persistent data key marking entities spawned on behalf of a game, value is the game ID
+    private static final String OWNER_KEY = "game_id";
+    // Dead entities are pruned once the registry has grown to this size, the limit then doubles
+    private static final int MIN_PRUNE_SIZE = 64;
+
+    private final BeaconLabsBW plugin;
+    private final String gameId;
+    private final NamespacedKey ownerKey;
+
+    private final Map<Integer, BukkitTask> tasks = new HashMap<>();
+    private final Map<UUID, Entity> entities = new LinkedHashMap<>();
+    private int pruneSize = MIN_PRUNE_SIZE;
+    private boolean released = false;
+
+    // Leak statistics, filled in on release
+    @Getter
+    private int reclaimedTasks = 0;
+    @Getter
+    private int reclaimedEntities = 0;
+
+    public GameResources(BeaconLabsBW plugin, String gameId) {
+        this.plugin = plugin;
+        this.gameId = gameId;
+        this.ownerKey = new NamespacedKey(plugin, OWNER_KEY);
+    }
+
+    /**
+     * Get the ID of the game an entity was spawned for
+     *
+     * @param plugin The plugin instance
+     * @param entity The entity
+     * @return The game ID, or null if no game owns the entity
+     */
+    public static String getOwnerId(Plugin plugin, Entity entity) {
+        return entity.getPersistentDataContainer().get(new NamespacedKey(plugin, OWNER_KEY), PersistentDataType.STRING);
+    }
+
+    /**
+     * Register a task running on behalf of the game, it is cancelled on release
+     *
+     * @param task The task
+     * @return The same task
+     */
+    public BukkitTask track(BukkitTask task) {
+        if (task == null) return null;
+        if (released) {
+            // The game is already gone, nothing may keep running for it
+            task.cancel();
+            plugin.getLogger().warning("[Game " + gameId + "] Cancelled task " + task.getTaskId() + " registered after the game ended");
+            return task;
+        }
+        pruneTasks();
+        tasks.put(task.getTaskId(), task);
+        return task;
+    }
+
+    /**
+     * Register an entity spawned on behalf of the game, it is removed on release
+     *
+     * @param entity The entity
+     * @param <T> The entity type
+     * @return The same entity
+     */
+    public <T extends Entity> T track(T entity) {
+        if (entity == null) return null;
+        if (released) {
+            entity.remove();
+            plugin.getLogger().warning("[Game " + gameId + "] Removed " + entity.getType() + " spawned after the game ended");
+            return entity;
+        }
+        entity.getPersistentDataContainer().set(ownerKey, PersistentDataType.STRING, gameId);
+        entities.put(entity.getUniqueId(), entity);
+
+        // Picked up drops and exploded TNT are dropped in batches, not on every registration
+        if (entities.size() >= pruneSize) {
+            entities.values().removeIf(owned -> !owned.isValid());
+            pruneSize = Math.max(MIN_PRUNE_SIZE, entities.size() * 2);
+        }
+        return entity;
+    }
+
+    /**
+     * Forget an entity that was removed by the game itself
+     *
+     * @param entity The entity
+     */
+    public void untrack(Entity entity) {
+        if (entity != null) {
+            entities.remove(entity.getUniqueId());
+        }
+    }
+
+    /**
+     * Get the owned entities of a type that still exist
+     *
+     * @param type The entity type
+     * @param <T> The entity type
+     * @return The entities, in spawn order
+     */
+    public <T extends Entity> List<T> getEntities(Class<T> type) {
+        List<T> result = new ArrayList<>();
+        for (Entity entity : entities.values()) {
+            if (type.isInstance(entity) && entity.isValid()) {
+                result.add(type.cast(entity));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove the owned entities of a type
+     *
+     * @param type The entity type
+     * @return The number of entities removed
+     */
+    public int removeEntities(Class<? extends Entity> type) {
+        int removed = 0;
+        Iterator<Entity> iterator = entities.values().iterator();
+        while (iterator.hasNext()) {
+            Entity entity = iterator.next();
+            if (!entity.isValid()) {
+                iterator.remove();
+            } else if (type.isInstance(entity)) {
+                entity.remove();
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Check if a task is owned by this game
+     *
+     * @param taskId The Bukkit task ID
+     * @return true if owned
+     */
+    public boolean ownsTask(int taskId) {
+        return tasks.containsKey(taskId);
+    }
+
+    /**
+     * Get the number of owned tasks that are still queued or running
+     *
+     * @return The live task count
+     */
+    public int getTaskCount() {
+        pruneTasks();
+        return tasks.size();
+    }
+
+    /**
+     * Get the number of owned entities that still exist
+     *
+     * @return The live entity count
+     */
+    public int getEntityCount() {
+        entities.values().removeIf(entity -> !entity.isValid());
+        pruneSize = Math.max(MIN_PRUNE_SIZE, entities.size() * 2);
+        return entities.size();
+    }
+
+    /**
+     * Cancel all owned tasks and remove all owned entities. Later registrations are undone right away.
+     */
+    public void releaseAll() {
+        if (released) return;
+        released = true;
+
+        BukkitScheduler scheduler = Bukkit.getScheduler();
+        for (BukkitTask task : tasks.values()) {
+            if (isLive(scheduler, task)) {
+                reclaimedTasks++;
+            }
+            task.cancel();
+        }
+        tasks.clear();
+
+        for (Entity entity : entities.values()) {
+            if (entity.isValid()) {
+                reclaimedEntities++;
+                entity.remove();
+            }
+        }
+        entities.clear();
+
+        if (reclaimedTasks > 0 || reclaimedEntities > 0) {
+            plugin.getLogger().info("[Game " + gameId + "] Released " + reclaimedTasks + " running tasks and "
+                + reclaimedEntities + " entities");
+        }
+    }
+
+    private void pruneTasks() {
+        BukkitScheduler scheduler = Bukkit.getScheduler();
+        tasks.values().removeIf(task -> !isLive(scheduler, task));
+    }
+
+    private static boolean isLive(BukkitScheduler scheduler, BukkitTask task) {
+        int taskId = task.getTaskId();
+        return !task.isCancelled() && (scheduler.isQueued(taskId) || scheduler.isCurrentlyRunning(taskId));
+    }
+}
@@ -0,0 +1,164 @@
+package org.bcnlab.beaconLabsBW.game;
+
+import lombok.Getter;
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+
+/**
+ * The clock of one game. A single tick task advances the game tick and runs the actions
+ * that are due from a queue ordered by tick, so countdowns, timers and delayed actions of
+ * a game share one scheduler task and all pending work can be cancelled at once.
+ */
+public class GameTicker {
+
+    private final BeaconLabsBW plugin;
+    private final String gameId;
+    // Ordered by due tick, actions due on the same tick run in scheduling order
+    private final PriorityQueue<Action> queue = new PriorityQueue<>(
+        Comparator.<Action>comparingLong(action -> action.dueTick).thenComparingLong(action -> action.sequence));
+
+    private BukkitTask task;
+    private Action running;
+    private long nextSequence = 0;
+    @Getter
+    private long currentTick = 0;
+
+    public GameTicker(BeaconLabsBW plugin, String gameId) {
+        this.plugin = plugin;
+        this.gameId = gameId;
+    }
+
+    /**
+     * Start the tick task
+     *
+     * @return The tick task
+     */
+    public BukkitTask start() {
+        if (task == null) {
+            task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+        return task;
+    }
+
+    /**
+     * Stop the tick task and drop all pending actions
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        cancelAll();
+    }
+
+    /**
+     * Run an action once after a delay
+     *
+     * @param delayTicks Ticks until the action runs
+     * @param action The action
+     * @return The scheduled action, can be cancelled
+     */
+    public Action schedule(long delayTicks, Runnable action) {
+        return add(new Action(action, 0L), delayTicks);
+    }
+
+    /**
+     * Run an action repeatedly until it is cancelled
+     *
+     * @param delayTicks Ticks until the first run
+     * @param periodTicks Ticks between runs
+     * @param action The action
+     * @return The scheduled action, can be cancelled
+     */
+    public Action scheduleRepeating(long delayTicks, long periodTicks, Runnable action) {
+        return add(new Action(action, Math.max(1L, periodTicks)), delayTicks);
+    }
+
+    /**
+     * Cancel every pending action, including the one currently running
+     */
+    public void cancelAll() {
+        for (Action action : queue) {
+            action.cancelled = true;
+        }
+        queue.clear();
+        if (running != null) {
+            running.cancelled = true;
+        }
+    }
+
+    /**
+     * Get the number of pending actions
+     *
+     * @return The pending action count
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private Action add(Action action, long delayTicks) {
+        action.dueTick = currentTick + Math.max(1L, delayTicks);
+        action.sequence = nextSequence++;
+        queue.add(action);
+        return action;
+    }
+
+    private void tick() {
+        currentTick++;
+
+        Action head;
+        while ((head = queue.peek()) != null && head.dueTick <= currentTick) {
+            queue.poll();
+            if (head.cancelled) continue;
+
+            running = head;
+            try {
+                head.runnable.run();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "[Game " + gameId + "] Scheduled action failed", e);
+            }
+            running = null;
+
+            // The action may have cancelled itself or the whole game while running
+            if (head.periodTicks > 0 && !head.cancelled) {
+                head.dueTick = currentTick + head.periodTicks;
+                head.sequence = nextSequence++;
+                queue.add(head);
+            }
+        }
+    }
+
+    /**
+     * An action waiting in the ticker queue
+     */
+    public static final class Action {
+        private final Runnable runnable;
+        private final long periodTicks;
+        private long dueTick;
+        private long sequence;
+        private boolean cancelled = false;
+
+        private Action(Runnable runnable, long periodTicks) {
+            this.runnable = runnable;
+            this.periodTicks = periodTicks;
+        }
+
+        /**
+         * Cancel the action, a repeating action stops after its current run
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /**
+         * @return true if the action was cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package org.bcnlab.beaconLabsBW.game;
+
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bcnlab.beaconLabsBW.arena.model.Arena;
+import org.bcnlab.beaconLabsBW.utils.MessageUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Places joining players into waiting lobbies across all arenas.
+ * Lobbies are filled fullest-first so games start as early as possible, a party is always
+ * placed into one lobby together, and a spare lobby is opened as soon as the others are full.
+ */
+public class Matchmaker {
+
+    private final BeaconLabsBW plugin;
+    private final GameManager gameManager;
+
+    // Instanced lobbies whose world is still being copied, in creation order
+    private final List<PendingLobby> pendingLobbies = new ArrayList<>();
+
+    public Matchmaker(BeaconLabsBW plugin, GameManager gameManager) {
+        this.plugin = plugin;
+        this.gameManager = gameManager;
+    }
+
+    /**
+     * Place a group of players into a lobby, keeping the group together where possible
+     *
+     * @param group The players, a single player or a party
+     * @return true if at least one player joined, was queued or is spectating
+     */
+    public boolean join(List<Player> group) {
+        List<Player> joining = new ArrayList<>();
+        for (Player player : group) {
+            if (player == null || !player.isOnline() || joining.contains(player)) continue;
+            if (gameManager.getPlayerGame(player) != null) continue;
+            if (isQueued(player.getUniqueId())) {
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou are already waiting for an arena!");
+                continue;
+            }
+            joining.add(player);
+        }
+        if (joining.isEmpty()) return false;
+
+        Game lobby = findLobby(joining.size());
+        if (lobby != null) {
+            boolean joined = addGroup(joining, lobby);
+            ensureOpenLobby();
+            return joined;
+        }
+
+        // No lobby has room for the whole group, open a new one
+        if (plugin.getArenaInstanceManager().isEnabled()) {
+            PendingLobby pending = findPendingLobby(joining.size());
+            if (pending == null) {
+                pending = openInstanceLobby();
+            }
+            if (pending != null) {
+                for (Player player : joining) {
+                    pending.queued.add(player.getUniqueId());
+                    MessageUtils.sendMessage(player, plugin.getPrefix() + "&7Preparing a new arena, please wait...");
+                }
+                return true;
+            }
+        } else {
+            Arena arena = gameManager.chooseNextArena();
+            Game newLobby = arena != null ? gameManager.startGame(arena) : null;
+            if (newLobby != null) {
+                boolean joined = addGroup(joining, newLobby);
+                ensureOpenLobby();
+                return joined;
+            }
+        }
+
+        // Every arena is in use, split the group over the lobbies that still have room
+        lobby = findLobby(1);
+        if (lobby != null) {
+            return addGroup(joining, lobby);
+        }
+
+        // Nothing to join, watch a running game instead
+        Game runningGame = gameManager.findRunningGame();
+        boolean spectating = false;
+        for (Player player : joining) {
+            if (runningGame != null && gameManager.addSpectatorToGame(player, runningGame)) {
+                spectating = true;
+            } else {
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cNo available arenas found!");
+            }
+        }
+        return spectating;
+    }
+
+    /**
+     * Add a group to a lobby, players that no longer fit are matched again on their own
+     *
+     * @param group The players
+     * @param lobby The lobby
+     * @return true if at least one player joined
+     */
+    private boolean addGroup(List<Player> group, Game lobby) {
+        boolean joined = false;
+        List<Player> overflow = new ArrayList<>();
+        for (Player player : group) {
+            if (freeSlots(lobby) > 0 && gameManager.addPlayerToGame(player, lobby)) {
+                joined = true;
+            } else {
+                overflow.add(player);
+            }
+        }
+
+        // Only retry when this lobby took someone, otherwise the same lobby would be picked again
+        if (!overflow.isEmpty() && joined) {
+            join(overflow);
+        }
+        return joined;
+    }
+
+    /**
+     * Find the fullest lobby that still has room for a group
+     *
+     * @param groupSize The number of players that must fit
+     * @return The lobby, or null if none has enough room
+     */
+    private Game findLobby(int groupSize) {
+        return getOpenLobbies().stream()
+            .filter(game -> freeSlots(game) >= groupSize)
+            .max(Comparator.comparingInt(game -> game.getPlayers().size()))
+            .orElse(null);
+    }
+
+    /**
+     * Find the fullest instanced lobby being prepared that still has room for a group
+     *
+     * @param groupSize The number of players that must fit
+     * @return The pending lobby, or null if none has enough room
+     */
+    private PendingLobby findPendingLobby(int groupSize) {
+        return pendingLobbies.stream()
+            .filter(pending -> pending.freeSlots() >= groupSize)
+            .max(Comparator.comparingInt(pending -> pending.queued.size()))
+            .orElse(null);
+    }
+
+    /**
+     * Open a spare lobby when every open lobby is full, up to the configured lobby limit
+     */
+    private void ensureOpenLobby() {
+        List<Game> openLobbies = getOpenLobbies();
+        boolean hasRoom = openLobbies.stream().anyMatch(game -> freeSlots(game) > 0)
+            || pendingLobbies.stream().anyMatch(pending -> pending.freeSlots() > 0);
+        if (hasRoom) return;
+
+        if (openLobbies.size() + pendingLobbies.size() >= plugin.getConfigManager().getMaxOpenLobbies()) {
+            return;
+        }
+
+        if (plugin.getArenaInstanceManager().isEnabled()) {
+            openInstanceLobby();
+        } else {
+            Arena arena = gameManager.chooseNextArena();
+            if (arena != null) {
+                gameManager.startGame(arena);
+            }
+        }
+    }
+
+    /**
+     * Start copying a new instance world, players can be queued for it until it is ready
+     *
+     * @return The pending lobby, or null if no arena is available
+     */
+    private PendingLobby openInstanceLobby() {
+        Arena template = gameManager.chooseNextArena();
+        if (template == null) return null;
+
+        PendingLobby pending = new PendingLobby(template.getMaxPlayers());
+        pendingLobbies.add(pending);
+        plugin.getArenaInstanceManager().createInstance(template, instance -> onInstanceReady(pending, instance));
+        return pending;
+    }
+
+    /**
+     * Start the lobby of a finished instance and move its queued players in
+     *
+     * @param pending The pending lobby
+     * @param instance The instance arena, or null if the copy failed
+     */
+    private void onInstanceReady(PendingLobby pending, Arena instance) {
+        pendingLobbies.remove(pending);
+        List<Player> queued = pending.queued.stream()
+            .map(Bukkit::getPlayer)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        Game newLobby = instance != null ? gameManager.startGame(instance) : null;
+        if (newLobby == null) {
+            if (instance != null) {
+                plugin.getArenaInstanceManager().releaseInstance(instance);
+            }
+            for (Player player : queued) {
+                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cFailed to start a new game!");
+            }
+            return;
+        }
+
+        if (!queued.isEmpty()) {
+            addGroup(queued, newLobby);
+        }
+        ensureOpenLobby();
+    }
+
+    /**
+     * Get all lobbies players can still join
+     *
+     * @return The games in WAITING or STARTING state
+     */
+    List<Game> getOpenLobbies() {
+        return gameManager.getActiveGames().values().stream()
+            .filter(game -> game.getState() == GameState.WAITING || game.getState() == GameState.STARTING)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Get the fullest lobby players can still join
+     *
+     * @return The lobby, or null if there is none
+     */
+    Game getFullestLobby() {
+        return getOpenLobbies().stream()
+            .max(Comparator.comparingInt(game -> game.getPlayers().size()))
+            .orElse(null);
+    }
+
+    /**
+     * Check if a player is waiting for an instanced lobby
+     *
+     * @param playerId The player UUID
+     * @return true if queued
+     */
+    public boolean isQueued(UUID playerId) {
+        return pendingLobbies.stream().anyMatch(pending -> pending.queued.contains(playerId));
+    }
+
+    /**
+     * Drop a player from every instanced lobby they are waiting for, e.g. because they quit
+     *
+     * @param playerId The player UUID
+     */
+    public void removeQueued(UUID playerId) {
+        for (PendingLobby pending : pendingLobbies) {
+            pending.queued.remove(playerId);
+        }
+    }
+
+    private static int freeSlots(Game game) {
+        return game.getArena().getMaxPlayers() - game.getPlayers().size();
+    }
+
+    /**
+     * An instanced lobby whose world is still being copied
+     */
+    private static class PendingLobby {
+        private final int capacity;
+        private final Set<UUID> queued = new LinkedHashSet<>();
+
+        PendingLobby(int capacity) {
+            this.capacity = capacity;
+        }
+
+        int freeSlots() {
+            return capacity - queued.size();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.bcnlab.beaconLabsBW.game;
+
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Sends particle effects only to the players that can actually see them.
+ * Viewers outside the view radius get nothing, far viewers get fewer particles,
+ * and every game has a particle budget per tick so crowded games can't flood clients.
+ */
+public class ParticleManager {
+
+    private final BeaconLabsBW plugin;
+
+    // Particles sent this tick, per game (or per world outside of games)
+    private final Map<Object, int[]> sentThisTick = new IdentityHashMap<>();
+    private final Location viewerLocation = new Location(null, 0, 0, 0);
+    private BukkitTask resetTask;
+
+    public ParticleManager(BeaconLabsBW plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the task that resets the per-tick budgets
+     */
+    public void start() {
+        if (resetTask != null) return;
+        resetTask = plugin.getServer().getScheduler().runTaskTimer(plugin, () -> {
+            if (!sentThisTick.isEmpty()) {
+                sentThisTick.clear();
+            }
+        }, 1L, 1L);
+    }
+
+    /**
+     * Stop the budget reset task
+     */
+    public void shutdown() {
+        if (resetTask != null) {
+            resetTask.cancel();
+            resetTask = null;
+        }
+        sentThisTick.clear();
+    }
+
+    /**
+     * Spawn a particle effect for nearby viewers
+     *
+     * @param particle The particle
+     * @param location The effect location
+     * @param count The particle count for close viewers
+     * @param offsetX Spread on the x axis
+     * @param offsetY Spread on the y axis
+     * @param offsetZ Spread on the z axis
+     * @param extra The particle's extra value (usually speed)
+     */
+    public void spawn(Particle particle, Location location, int count,
+                      double offsetX, double offsetY, double offsetZ, double extra) {
+        spawn(particle, location, count, offsetX, offsetY, offsetZ, extra, null);
+    }
+
+    /**
+     * Spawn a particle effect with particle data for nearby viewers
+     *
+     * @param particle The particle
+     * @param location The effect location
+     * @param count The particle count for close viewers
+     * @param offsetX Spread on the x axis
+     * @param offsetY Spread on the y axis
+     * @param offsetZ Spread on the z axis
+     * @param extra The particle's extra value (usually speed)
+     * @param data The particle data, e.g. block data for dust particles
+     * @param <T> The particle data type
+     */
+    public <T> void spawn(Particle particle, Location location, int count,
+                          double offsetX, double offsetY, double offsetZ, double extra, T data) {
+        World world = location.getWorld();
+        if (world == null || count <= 0) return;
+
+        int[] sent = getBudgetCounter(world);
+        int budget = plugin.getConfigManager().getParticleBudgetPerTick();
+        double radius = plugin.getConfigManager().getParticleViewRadius();
+
+        for (Player viewer : world.getPlayers()) {
+            if (sent[0] >= budget) return;
+
+            int scaled = scaleCount(count, viewer, location, radius);
+            if (scaled == 0) continue;
+
+            scaled = Math.min(scaled, budget - sent[0]);
+            viewer.spawnParticle(particle, location, scaled, offsetX, offsetY, offsetZ, extra, data);
+            sent[0] += scaled;
+        }
+    }
+
+    /**
+     * Spawn a horizontal ring of particles for nearby viewers.
+     * Far viewers see a ring with fewer points.
+     *
+     * @param particle The particle
+     * @param center The ring center
+     * @param ringRadius The ring radius in blocks
+     * @param points The number of points for close viewers
+     * @param countPerPoint The particle count at each point
+     * @param offsetX Spread on the x axis
+     * @param offsetY Spread on the y axis
+     * @param offsetZ Spread on the z axis
+     * @param extra The particle's extra value (usually speed)
+     * @param data The particle data, or null
+     * @param <T> The particle data type
+     */
+    public <T> void ring(Particle particle, Location center, double ringRadius, int points, int countPerPoint,
+                         double offsetX, double offsetY, double offsetZ, double extra, T data) {
+        World world = center.getWorld();
+        if (world == null || points <= 0) return;
+
+        int[] sent = getBudgetCounter(world);
+        int budget = plugin.getConfigManager().getParticleBudgetPerTick();
+        double radius = plugin.getConfigManager().getParticleViewRadius();
+
+        for (Player viewer : world.getPlayers()) {
+            int viewerPoints = scaleCount(points, viewer, center, radius);
+            if (viewerPoints == 0) continue;
+
+            for (int i = 0; i < viewerPoints; i++) {
+                if (sent[0] + countPerPoint > budget) return;
+
+                double angle = 2 * Math.PI * i / viewerPoints;
+                viewer.spawnParticle(particle,
+                    center.getX() + ringRadius * Math.cos(angle),
+                    center.getY(),
+                    center.getZ() + ringRadius * Math.sin(angle),
+                    countPerPoint, offsetX, offsetY, offsetZ, extra, data);
+                sent[0] += countPerPoint;
+            }
+        }
+    }
+
+    /**
+     * Scale a particle count by the viewer's distance
+     *
+     * @return The count for this viewer, 0 if the viewer is out of range
+     */
+    private int scaleCount(int count, Player viewer, Location location, double radius) {
+        double distanceSquared = viewer.getLocation(viewerLocation).distanceSquared(location);
+        if (distanceSquared > radius * radius) {
+            return 0;
+        }
+
+        // Full detail in the inner third, half in the middle third, a quarter beyond
+        double nearSquared = radius * radius / 9;
+        if (distanceSquared <= nearSquared) {
+            return count;
+        }
+        if (distanceSquared <= nearSquared * 4) {
+            return Math.max(1, count / 2);
+        }
+        return Math.max(1, count / 4);
+    }
+
+    private int[] getBudgetCounter(World world) {
+        Game game = plugin.getGameManager().getGameByWorld(world);
+        Object key = game != null ? game : world;
+        return sentThisTick.computeIfAbsent(key, k -> new int[1]);
+    }
+}
@@ -0,0 +1,86 @@
+package org.bcnlab.beaconLabsBW.game;
+
+import lombok.Getter;
+import org.bcnlab.beaconLabsBW.game.ultimates.UltimateClass;
+
+import java.util.UUID;
+
+/**
+ * Everything event handlers need to know about an online player, in one object.
+ * Created when the player joins, kept up to date by the game the player is in
+ * and dropped when the player quits.
+ */
+@Getter
+public class PlayerSession {
+
+    private final UUID playerId;
+
+    private Game game;
+    private String team;
+    private boolean spectator;
+    private UltimateClass ultimateClass;
+
+    // Time in millis until the player's ultimate ability can be used again
+    private long abilityCooldownUntil;
+
+    public PlayerSession(UUID playerId) {
+        this.playerId = playerId;
+    }
+
+    /**
+     * Check if the player is in the given game
+     *
+     * @param game The game
+     * @return true if the session belongs to that game
+     */
+    public boolean isIn(Game game) {
+        return game != null && this.game == game;
+    }
+
+    /**
+     * Check if the player's ultimate ability is on cooldown
+     *
+     * @return true if on cooldown
+     */
+    public boolean isOnAbilityCooldown() {
+        return abilityCooldownUntil > System.currentTimeMillis();
+    }
+
+    /**
+     * Put the player's ultimate ability on cooldown
+     *
+     * @param seconds Cooldown in seconds, 0 clears the cooldown
+     */
+    public void setAbilityCooldown(int seconds) {
+        abilityCooldownUntil = seconds > 0 ? System.currentTimeMillis() + seconds * 1000L : 0;
+    }
+
+    void joinGame(Game game) {
+        reset();
+        this.game = game;
+    }
+
+    void leaveGame() {
+        reset();
+    }
+
+    void setTeam(String team) {
+        this.team = team;
+    }
+
+    void setSpectator(boolean spectator) {
+        this.spectator = spectator;
+    }
+
+    void setUltimateClass(UltimateClass ultimateClass) {
+        this.ultimateClass = ultimateClass;
+    }
+
+    private void reset() {
+        game = null;
+        team = null;
+        spectator = false;
+        ultimateClass = null;
+        abilityCooldownUntil = 0;
+    }
+}
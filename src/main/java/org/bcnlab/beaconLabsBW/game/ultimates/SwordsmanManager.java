@@ -1,6 +1,7 @@
 package org.bcnlab.beaconLabsBW.game.ultimates;
 
 import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bcnlab.beaconLabsBW.game.Game;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Particle;
@@ -22,7 +23,6 @@ public class SwordsmanManager {
     // Track swordsman teleport back locations and expiration times
     private final Map<UUID, org.bukkit.Location> swordsmanTeleports = new ConcurrentHashMap<>();
     private final Map<UUID, Long> teleportExpirationTimes = new ConcurrentHashMap<>();
-    private final Map<UUID, org.bukkit.scheduler.BukkitTask> holdingTeleportTasks = new ConcurrentHashMap<>();
     // How long a teleport opportunity lasts (in milliseconds)
     private static final long TELEPORT_EXPIRATION_TIME = 8000; // 8 seconds
 
@@ -34,16 +34,13 @@ public class SwordsmanManager {
      * Process a swordsman dash ability activation
      *
      * @param player The player
+     * @param game The player's game, runs the delayed parts of the dash
      * @return true if the dash was activated, false if teleported back
      */
-    public boolean processSwordsmanDash(Player player) {
+    public boolean processSwordsmanDash(Player player, Game game) {
         UUID playerId = player.getUniqueId();
         
-        // If player clicks again while a hold task is already running, cancel the old hold and start a new one.
-        if (holdingTeleportTasks.containsKey(playerId)) {
-            holdingTeleportTasks.get(playerId).cancel();
-            holdingTeleportTasks.remove(playerId);
-        }        // Check if player has the option to teleport back
+        // Check if player has the option to teleport back
         if (hasTeleportOption(playerId)) {
             // Player has an active teleport-back option. Teleport immediately on click.
             teleportPlayerBack(player); // Perform teleport immediately
@@ -51,7 +48,7 @@ public class SwordsmanManager {
         }
         
         // This is a first click or teleport option expired - perform the dash
-        performDash(player);
+        performDash(player, game);
         return true;
     }
     
@@ -84,8 +81,9 @@ public class SwordsmanManager {
      * Perform the dash part of the swordsman ability
      *
      * @param player The player
+     * @param game The player's game
      */
-    private void performDash(Player player) {
+    private void performDash(Player player, Game game) {
         UUID playerId = player.getUniqueId();
         
         // Store original location for teleport-back feature
@@ -99,7 +97,7 @@ public class SwordsmanManager {
         player.addPotionEffect(new PotionEffect(PotionEffectType.RESISTANCE, 40, 1));
         
         // Damage nearby players in the path
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        game.getTicker().schedule(5L, () -> {
             for (Player target : Bukkit.getOnlinePlayers()) {
                 if (target != player && target.getWorld() == player.getWorld() &&
                     target.getLocation().distance(player.getLocation()) < 4.0) {
@@ -107,41 +105,42 @@ public class SwordsmanManager {
                     target.setVelocity(direction.clone().multiply(0.8));
                     
                     // Add hit effect
-                    target.getWorld().spawnParticle(Particle.CRIT, target.getLocation().add(0, 1, 0),
+                    plugin.getParticleManager().spawn(Particle.CRIT, target.getLocation().add(0, 1, 0),
                         15, 0.4, 0.4, 0.4, 0.1);
                 }
             }
-        }, 5L);
+        });
         
         // Visual effects for dash
-        player.getWorld().spawnParticle(Particle.SWEEP_ATTACK, player.getLocation(), 
+        plugin.getParticleManager().spawn(Particle.SWEEP_ATTACK, player.getLocation(), 
                                       10, 0.5, 0.5, 0.5, 0.1);
-        player.getWorld().spawnParticle(Particle.CLOUD, player.getLocation(), 
+        plugin.getParticleManager().spawn(Particle.CLOUD, player.getLocation(), 
                                       15, 0.2, 0.2, 0.2, 0.1);
         player.getWorld().playSound(player.getLocation(), Sound.ENTITY_PLAYER_ATTACK_SWEEP, 1.0f, 1.2f);
 
         // Store the original location for teleport-back feature
-        storeTeleportLocation(playerId, originalLocation);
+        storeTeleportLocation(playerId, originalLocation, game);
           // Notify player about teleport-back option
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        game.getTicker().schedule(10L, () -> { // 0.5 seconds later
             if (player.isOnline() && !player.isDead() && hasTeleportOption(playerId)) {
                 player.sendMessage(plugin.getPrefix() + ChatColor.GOLD + "Right-click your sword again to teleport back!");
                 player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_PLING, 1.0f, 2.0f);
             }
-        }, 10L); // 0.5 seconds later
+        });
     }
       /**
      * Store a teleport location for a player
      *
      * @param playerId The player UUID
      * @param location The location to store
+     * @param game The player's game
      */
-    private void storeTeleportLocation(UUID playerId, org.bukkit.Location location) {
+    private void storeTeleportLocation(UUID playerId, org.bukkit.Location location, Game game) {
         swordsmanTeleports.put(playerId, location);
         teleportExpirationTimes.put(playerId, System.currentTimeMillis() + TELEPORT_EXPIRATION_TIME);
         
         // Schedule task to notify about expiration if the option wasn't used
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        game.getTicker().schedule((TELEPORT_EXPIRATION_TIME / 50L) + 20L, () -> { // 1 second (20 ticks) after it should have expired
             // Check if the teleport option still exists AND it has expired
             // This means the player never used the teleport (didn't call teleportPlayerBack)
             if (swordsmanTeleports.containsKey(playerId) && 
@@ -156,7 +155,7 @@ public class SwordsmanManager {
             }
             // If the player has already teleported back, the maps won't contain their ID
             // and no message will be displayed
-        }, (TELEPORT_EXPIRATION_TIME / 50L) + 20L); // Run 1 second (20 ticks) after it should have expired
+        });
     }
     
     /**
@@ -175,7 +174,7 @@ public class SwordsmanManager {
         player.addPotionEffect(new PotionEffect(PotionEffectType.RESISTANCE, 40, 4, false, false));
         
         // Add pre-teleport effect
-        player.getWorld().spawnParticle(Particle.PORTAL, player.getLocation().add(0, 1, 0), 
+        plugin.getParticleManager().spawn(Particle.PORTAL, player.getLocation().add(0, 1, 0), 
                                       30, 0.5, 1.0, 0.5, 0.1);
         
         // Teleport player back
@@ -183,7 +182,7 @@ public class SwordsmanManager {
         player.addPotionEffect(new PotionEffect(PotionEffectType.RESISTANCE, 40, 4, false, false));
         
         // Add teleport effects
-        player.getWorld().spawnParticle(Particle.REVERSE_PORTAL, player.getLocation().add(0, 1, 0),
+        plugin.getParticleManager().spawn(Particle.REVERSE_PORTAL, player.getLocation().add(0, 1, 0),
                                      40, 0.5, 1.0, 0.5, 0.1);
         player.playSound(player.getLocation(), Sound.ENTITY_ENDERMAN_TELEPORT, 0.8f, 1.2f);
         player.sendMessage(plugin.getPrefix() + ChatColor.GREEN + "You've been teleported back!");
@@ -197,10 +196,5 @@ public class SwordsmanManager {
     public void clearTeleportOption(UUID playerId) {
         swordsmanTeleports.remove(playerId);
         teleportExpirationTimes.remove(playerId);
-        // Also cancel any pending hold task for this player
-        if (holdingTeleportTasks.containsKey(playerId)) {
-            holdingTeleportTasks.get(playerId).cancel();
-            holdingTeleportTasks.remove(playerId);
-        }
     }
 }
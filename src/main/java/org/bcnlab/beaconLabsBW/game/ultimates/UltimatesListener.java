@@ -2,14 +2,16 @@ package org.bcnlab.beaconLabsBW.game.ultimates;
 
 import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bcnlab.beaconLabsBW.game.Game;
+import org.bcnlab.beaconLabsBW.game.PlayerSession;
 import org.bcnlab.beaconLabsBW.game.GameMode;
+import org.bcnlab.beaconLabsBW.listeners.GameEventRouter;
+import org.bcnlab.beaconLabsBW.utils.MaterialTraits;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.Particle;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
@@ -38,23 +40,26 @@ public class UltimatesListener implements Listener {
         this.plugin = plugin;
     }
     
-    @EventHandler
-    public void onPlayerInteract(PlayerInteractEvent event) {
-        Player player = event.getPlayer();
-        Game game = plugin.getGameManager().getPlayerGame(player);
-        
-        // Check if player is in a game with ultimates enabled
-        if (game == null || game.getGameMode() != GameMode.ULTIMATES) {
-            return;
-        }
-        
+    /**
+     * Register the handlers that only apply to ultimates games
+     * 
+     * @param router The event router
+     */
+    public void registerRoutes(GameEventRouter router) {
+        router.register(PlayerInteractEvent.class, GameMode.ULTIMATES, this::onPlayerInteract);
+        router.register(PlayerDeathEvent.class, GameMode.ULTIMATES, this::onPlayerDeath);
+        router.register(BlockBreakEvent.class, GameMode.ULTIMATES, this::onBlockBreak);
+        router.register(EntityDamageEvent.class, GameMode.ULTIMATES, this::onPlayerDamage);
+    }
+    
+    private void onPlayerInteract(PlayerInteractEvent event, Player player, PlayerSession session, Game game) {
         // Check if right-click action
         if (event.getAction() != Action.RIGHT_CLICK_AIR && event.getAction() != Action.RIGHT_CLICK_BLOCK) {
             return;
         }
         
         // Get player's ultimate class
-        UltimateClass playerClass = game.getPlayerUltimateClass(player.getUniqueId());
+        UltimateClass playerClass = session.getUltimateClass();
         if (playerClass == null) {
             return;
         }
@@ -66,7 +71,7 @@ public class UltimatesListener implements Listener {
         }
         
         // Process abilities based on item and class
-        if (playerClass == UltimateClass.SWORDSMAN && item.getType().name().contains("SWORD")) {
+        if (playerClass == UltimateClass.SWORDSMAN && MaterialTraits.isSword(item.getType())) {
             // Activate the ability
             plugin.getUltimatesManager().activateUltimate(player, playerClass);
             event.setCancelled(true);
@@ -84,7 +89,8 @@ public class UltimatesListener implements Listener {
     @EventHandler
     public void onBlockPlace(BlockPlaceEvent event) {
         Player player = event.getPlayer();
-        Game game = plugin.getGameManager().getPlayerGame(player);
+        PlayerSession session = plugin.getGameManager().getSession(player);
+        Game game = session.getGame();
         
         // Check if player is in a game with ultimates enabled
         if (game == null || game.getGameMode() != GameMode.ULTIMATES) {
@@ -92,8 +98,8 @@ public class UltimatesListener implements Listener {
         }
         
         // Check if player is a Builder and placed wool
-        UltimateClass playerClass = game.getPlayerUltimateClass(player.getUniqueId());
-        if (playerClass == UltimateClass.BUILDER && event.getBlock().getType().name().contains("WOOL")) {
+        UltimateClass playerClass = session.getUltimateClass();
+        if (playerClass == UltimateClass.BUILDER && MaterialTraits.isWool(event.getBlock().getType())) {
             // Check if player is holding the Builder's tool
             ItemStack mainHand = player.getInventory().getItemInMainHand();
             ItemStack offHand = player.getInventory().getItemInOffHand();
@@ -108,11 +114,12 @@ public class UltimatesListener implements Listener {
     @EventHandler
     public void onPlayerToggleFlight(PlayerToggleFlightEvent event) {
         Player player = event.getPlayer();
-        Game game = plugin.getGameManager().getPlayerGame(player);
+        PlayerSession session = plugin.getGameManager().getSession(player);
+        Game game = session.getGame();
         
         // Check for Kangaroo double jump
         if (game != null && game.getGameMode() == GameMode.ULTIMATES) {
-            UltimateClass playerClass = game.getPlayerUltimateClass(player.getUniqueId());
+            UltimateClass playerClass = session.getUltimateClass();
             if (playerClass == UltimateClass.KANGAROO && player.getGameMode().name().contains("SURVIVAL")) {
                 // Check if player is on ground or has recently jumped
                 if (!player.isOnGround() && !player.isFlying()) {
@@ -125,29 +132,20 @@ public class UltimatesListener implements Listener {
                         plugin.getUltimatesManager().startCooldownDisplay(player, 10);
                         
                         // Schedule flight re-enable
-                        Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                            if (player.isOnline() && !player.isDead() && game.isPlayerInGame(player) && !game.isSpectator(player)) {
+                        game.getTicker().schedule(10 * 20L, () -> { // 10 seconds
+                            if (player.isOnline() && !player.isDead() && session.isIn(game) && !session.isSpectator()) {
                                 player.setAllowFlight(true);
                             }
-                        }, 10 * 20L); // 10 seconds
+                        });
                     }
                 }
             }
         }
     }
     
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        Game game = plugin.getGameManager().getPlayerGame(player);
-        
-        // Check if player is in a game with ultimates enabled
-        if (game == null || game.getGameMode() != GameMode.ULTIMATES) {
-            return;
-        }
-        
+    private void onPlayerDeath(PlayerDeathEvent event, Player player, PlayerSession session, Game game) {
         // Get player's ultimate class
-        UltimateClass playerClass = game.getPlayerUltimateClass(player.getUniqueId());
+        UltimateClass playerClass = session.getUltimateClass();
         if (playerClass == null) {
             return;
         }
@@ -169,21 +167,12 @@ public class UltimatesListener implements Listener {
         }
     }
     
-    @EventHandler
-    public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
-        Game game = plugin.getGameManager().getPlayerGame(player);
-        
-        // Check if player is in a game with ultimates enabled
-        if (game == null || game.getGameMode() != GameMode.ULTIMATES) {
-            return;
-        }
-        
+    private void onBlockBreak(BlockBreakEvent event, Player player, PlayerSession session, Game game) {
         // Check if it's a bed being broken
         Block block = event.getBlock();
-        if (block.getType().name().contains("BED")) {
+        if (MaterialTraits.isBed(block.getType())) {
             // Get player's ultimate class
-            UltimateClass playerClass = game.getPlayerUltimateClass(player.getUniqueId());
+            UltimateClass playerClass = session.getUltimateClass();
             if (playerClass == UltimateClass.KANGAROO) {
                 // Give magic milk for breaking a bed
                 plugin.getUltimatesManager().giveMagicMilk(player);
@@ -191,21 +180,9 @@ public class UltimatesListener implements Listener {
         }
     }
     
-    @EventHandler
-    public void onPlayerDamage(EntityDamageEvent event) {
-        if (!(event.getEntity() instanceof Player player)) {
-            return;
-        }
-        
-        Game game = plugin.getGameManager().getPlayerGame(player);
-        
-        // Check if player is in a game with ultimates enabled
-        if (game == null || game.getGameMode() != GameMode.ULTIMATES) {
-            return;
-        }
-        
+    private void onPlayerDamage(EntityDamageEvent event, Player player, PlayerSession session, Game game) {
         // Get player's ultimate class
-        UltimateClass playerClass = game.getPlayerUltimateClass(player.getUniqueId());
+        UltimateClass playerClass = session.getUltimateClass();
         if (playerClass == null) {
             return;
         }
@@ -216,7 +193,7 @@ public class UltimatesListener implements Listener {
             event.setCancelled(true);
             
             // Show effect to indicate fall damage immunity
-            player.getWorld().spawnParticle(Particle.CLOUD, player.getLocation(), 
+            plugin.getParticleManager().spawn(Particle.CLOUD, player.getLocation(), 
                                          10, 0.3, 0.1, 0.3, 0.05);
         }
     }
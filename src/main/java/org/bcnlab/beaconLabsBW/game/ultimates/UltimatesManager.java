@@ -25,6 +25,11 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.bcnlab.beaconLabsBW.game.Game;
+import org.bcnlab.beaconLabsBW.game.GameMode;
+import org.bcnlab.beaconLabsBW.game.GameTicker;
+import org.bcnlab.beaconLabsBW.game.PlayerSession;
+import org.bcnlab.beaconLabsBW.listeners.GameEventRouter;
+import org.bcnlab.beaconLabsBW.utils.MaterialTraits;
 
 /**
  * Manages ultimate abilities for BedWars Ultimates mode
@@ -32,11 +37,11 @@ import org.bcnlab.beaconLabsBW.game.Game;
 public class UltimatesManager implements Listener {
 
     private final BeaconLabsBW plugin;
-    private final Map<UUID, BukkitTask> cooldownTasks = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> abilityCooldowns = new ConcurrentHashMap<>();
-    private final Map<UUID, BukkitTask> healerTasks = new ConcurrentHashMap<>();
-    private final Map<UUID, BukkitTask> frozenPlayers = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> kangarooCooldownTasks = new ConcurrentHashMap<>();    // Specialized Swordsman manager
+    // Per-player effects, scheduled on the player's game ticker so they end with the game
+    private final Map<UUID, GameTicker.Action> cooldownTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, GameTicker.Action> healerTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, GameTicker.Action> frozenPlayers = new ConcurrentHashMap<>();
+    // Specialized Swordsman manager
     private final SwordsmanManager swordsmanManager;
     // Task for Builder wool generation
     private BukkitTask builderWoolTask;
@@ -119,8 +124,6 @@ public class UltimatesManager implements Listener {
      * @return True if activated successfully
      */
     public boolean activateUltimate(Player player, UltimateClass ultimateClass) {
-        UUID playerId = player.getUniqueId();
-
         org.bcnlab.beaconLabsBW.game.Game game = plugin.getGameManager().getPlayerGame(player);
         if (game == null || !game.areUltimatesActive()) {
             player.sendMessage(plugin.getPrefix() + ChatColor.RED + "Ultimates are not active yet!");
@@ -128,20 +131,17 @@ public class UltimatesManager implements Listener {
         }
         
         // Check for cooldown
-        if (abilityCooldowns.containsKey(playerId)) {
-            long timeLeft = (abilityCooldowns.get(playerId) - System.currentTimeMillis()) / 1000;
-            if (timeLeft > 0) {
-                // Display a brief flash on XP bar to show it's on cooldown
-                player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.5f);
-                return false;
-            }
+        if (plugin.getGameManager().getSession(player).isOnAbilityCooldown()) {
+            // Display a brief flash on XP bar to show it's on cooldown
+            player.playSound(player.getLocation(), Sound.BLOCK_NOTE_BLOCK_BASS, 1.0f, 0.5f);
+            return false;
         }
 
         // Activate based on class
         switch (ultimateClass) {
-            case SWORDSMAN -> activateSwordsmanDash(player);
-            case HEALER -> activateHealerAura(player);
-            case FROZO -> activateFrozo(player);
+            case SWORDSMAN -> activateSwordsmanDash(player, game);
+            case HEALER -> activateHealerAura(player, game);
+            case FROZO -> activateFrozo(player, game);
             case BUILDER -> {} // Passive ability
             case GATHERER -> activateGathererChest(player);
             case DEMOLITION -> activateDemolitionCharge(player);
@@ -157,24 +157,23 @@ public class UltimatesManager implements Listener {
     /**
      * Activate Swordsman's dash ability
      */
-    private void activateSwordsmanDash(Player player) {
+    private void activateSwordsmanDash(Player player, Game game) {
         // Set cooldown for the ultimate ability immediately
-        UUID playerId = player.getUniqueId();
-        abilityCooldowns.put(playerId, System.currentTimeMillis() + (SWORDSMAN_DASH_COOLDOWN * 1000));
+        plugin.getGameManager().getSession(player).setAbilityCooldown(SWORDSMAN_DASH_COOLDOWN);
         startCooldownDisplay(player, SWORDSMAN_DASH_COOLDOWN); // Always start cooldown display
         
         // SwordsmanManager will handle the logic of dash vs. teleport hold attempt
         // It no longer dictates UltimatesManager's cooldown display directly with its boolean return.
-        swordsmanManager.processSwordsmanDash(player);
+        swordsmanManager.processSwordsmanDash(player, game);
     }
 
     /**
      * Activate Healer's aura ability
      */
-    private void activateHealerAura(Player player) {
+    private void activateHealerAura(Player player, Game game) {
         // Set cooldown
         UUID playerId = player.getUniqueId();
-        abilityCooldowns.put(playerId, System.currentTimeMillis() + (HEALER_AURA_COOLDOWN * 1000));
+        plugin.getGameManager().getSession(player).setAbilityCooldown(HEALER_AURA_COOLDOWN);
         
         // Cancel any existing task
         if (healerTasks.containsKey(playerId)) {
@@ -183,41 +182,41 @@ public class UltimatesManager implements Listener {
         
         // Initial visual and sound effects
         player.getWorld().playSound(player.getLocation(), Sound.BLOCK_BEACON_ACTIVATE, 1.0f, 1.5f);
-        player.getWorld().spawnParticle(Particle.HAPPY_VILLAGER, player.getLocation().add(0, 1, 0),
+        plugin.getParticleManager().spawn(Particle.HAPPY_VILLAGER, player.getLocation().add(0, 1, 0),
                                       30, 0.5, 0.5, 0.5, 0.1);
           // Set XP bar for cooldown display
         startCooldownDisplay(player, HEALER_AURA_COOLDOWN);
         
         // Start healing aura
-        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        GameTicker.Action task = game.getTicker().scheduleRepeating(20L, 20L, () -> {
             // Display healing aura effect
-            player.getWorld().spawnParticle(Particle.HEART, player.getLocation().add(0, 1, 0), 
+            plugin.getParticleManager().spawn(Particle.HEART, player.getLocation().add(0, 1, 0), 
                                          5, 1.5, 0.5, 1.5, 0.1);
             
             // Heal nearby teammates
-            String playerTeam = plugin.getGameManager().getPlayerGame(player).getPlayerTeam(player);
+            String playerTeam = getTeam(player);
             if (playerTeam != null) {
                 for (Player target : Bukkit.getOnlinePlayers()) {
                     if (target != player && target.getWorld() == player.getWorld() &&
                         target.getLocation().distance(player.getLocation()) < 5.0 &&
-                        playerTeam.equals(plugin.getGameManager().getPlayerGame(target).getPlayerTeam(target))) {                          // Apply healing
+                        playerTeam.equals(getTeam(target))) {                          // Apply healing
                         if (target.getHealth() < 20) { // Use standard max health
                             target.setHealth(Math.min(target.getHealth() + 1.0, 20));
                             
                             // Visual effect on healed player
-                            target.getWorld().spawnParticle(Particle.HEART, target.getLocation().add(0, 1, 0), 
+                            plugin.getParticleManager().spawn(Particle.HEART, target.getLocation().add(0, 1, 0), 
                                                        2, 0.3, 0.3, 0.3, 0);
                             target.getWorld().playSound(target.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.5f, 1.0f);
                         }
                     }
                 }
             }
-        }, 20L, 20L);
+        });
         
         healerTasks.put(playerId, task);
         
         // Cancel task after 10 seconds
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        game.getTicker().schedule(200L, () -> {
             if (healerTasks.containsKey(playerId)) {
                 healerTasks.get(playerId).cancel();
                 healerTasks.remove(playerId);
@@ -225,25 +224,25 @@ public class UltimatesManager implements Listener {
                 // End sound effect
                 player.getWorld().playSound(player.getLocation(), Sound.BLOCK_BEACON_DEACTIVATE, 1.0f, 1.5f);
             }
-        }, 200L);
+        });
     }
 
     /**
      * Activate Frozo's slow ability
      */
-    private void activateFrozo(Player player) {
+    private void activateFrozo(Player player, Game game) {
         // Set cooldown
-        UUID playerId = player.getUniqueId();
-        abilityCooldowns.put(playerId, System.currentTimeMillis() + (FROZO_SLOWNESS_COOLDOWN * 1000));
+        plugin.getGameManager().getSession(player).setAbilityCooldown(FROZO_SLOWNESS_COOLDOWN);
         
-        // Get player team
-        String playerTeam = plugin.getGameManager().getPlayerGame(player).getPlayerTeam(player);
+        // Get player team, without one there is nobody to tell friend from foe
+        String playerTeam = getTeam(player);
+        if (playerTeam == null) return;
         
         // Visual effect for activation
         player.getWorld().playSound(player.getLocation(), Sound.BLOCK_GLASS_BREAK, 1.0f, 1.0f);
-        player.getWorld().spawnParticle(Particle.ITEM_SNOWBALL, player.getLocation().add(0, 1, 0),
+        plugin.getParticleManager().spawn(Particle.ITEM_SNOWBALL, player.getLocation().add(0, 1, 0),
                                      30, 3.0, 0.5, 3.0, 0.1);
-        player.getWorld().spawnParticle(Particle.SNOWFLAKE, player.getLocation(),
+        plugin.getParticleManager().spawn(Particle.SNOWFLAKE, player.getLocation(),
                                      50, 3.0, 0.2, 3.0, 0.1);
         
         // Set XP bar for cooldown
@@ -252,17 +251,10 @@ public class UltimatesManager implements Listener {
         // Create a visual ice wave effect that expands outward
         for (int i = 1; i <= 5; i++) {
             final int radius = i;
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                for (double angle = 0; angle < Math.PI * 2; angle += Math.PI / 8) {
-                    double x = radius * Math.cos(angle);
-                    double z = radius * Math.sin(angle);
-                    player.getWorld().spawnParticle(
-                        Particle.FALLING_DUST, 
-                        player.getLocation().add(x, 0, z), 
-                        5, 0.2, 0, 0.2, 0, Material.ICE.createBlockData()
-                    );
-                }
-            }, i * 2L);
+            game.getTicker().schedule(i * 2L, () -> {
+                plugin.getParticleManager().ring(Particle.FALLING_DUST, player.getLocation(), radius, 16,
+                    5, 0.2, 0, 0.2, 0, Material.ICE.createBlockData());
+            });
         }
         
         // Apply slowness to nearby enemies
@@ -270,7 +262,7 @@ public class UltimatesManager implements Listener {
             if (target != player && target.getWorld() == player.getWorld() &&
                 target.getLocation().distance(player.getLocation()) < 5.0) {
                 
-                String targetTeam = plugin.getGameManager().getPlayerGame(target).getPlayerTeam(target);
+                String targetTeam = getTeam(target);
                 if (!playerTeam.equals(targetTeam)) {
                     // Apply slowness and mining fatigue
                     target.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, 100, 1));
@@ -286,31 +278,31 @@ public class UltimatesManager implements Listener {
                     }
                     
                     // Add frost particle effects
-                    BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-                        target.getWorld().spawnParticle(
+                    GameTicker.Action task = game.getTicker().scheduleRepeating(1L, 5L, () -> {
+                        plugin.getParticleManager().spawn(
                             Particle.ITEM_SNOWBALL,
                             target.getLocation().add(0, 1, 0), 
                             10, 0.5, 0.5, 0.5, 0
                         );
                         // Add ice block particles
-                        target.getWorld().spawnParticle(
+                        plugin.getParticleManager().spawn(
                             Particle.FALLING_DUST,
                             target.getLocation().add(0, 0.5, 0),
                             3, 0.2, 0.2, 0.2, 0, Material.ICE.createBlockData()
                         );
-                    }, 0L, 5L);
+                    });
                     
                     frozenPlayers.put(targetId, task);
                     
                     // Cancel effects after 5 seconds
-                    Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                    game.getTicker().schedule(100L, () -> {
                         if (frozenPlayers.containsKey(targetId)) {
                             frozenPlayers.get(targetId).cancel();
                             frozenPlayers.remove(targetId);
                             // Play thawing sound
                             target.getWorld().playSound(target.getLocation(), Sound.BLOCK_FIRE_EXTINGUISH, 0.5f, 1.2f);
                         }
-                    }, 100L);
+                    });
                 }
             }
         }
@@ -321,9 +313,8 @@ public class UltimatesManager implements Listener {
      */
     private void activateGathererChest(Player player) {
         // Set cooldown
-        UUID playerId = player.getUniqueId();
         int GATHERER_CHEST_COOLDOWN = 5; // 5 second cooldown
-        abilityCooldowns.put(playerId, System.currentTimeMillis() + (GATHERER_CHEST_COOLDOWN * 1000));
+        plugin.getGameManager().getSession(player).setAbilityCooldown(GATHERER_CHEST_COOLDOWN);
         
         // Set XP bar for cooldown
         startCooldownDisplay(player, GATHERER_CHEST_COOLDOWN);
@@ -333,7 +324,7 @@ public class UltimatesManager implements Listener {
         
         // Visual and sound effect for activation
         player.getWorld().playSound(player.getLocation(), Sound.BLOCK_ENDER_CHEST_OPEN, 1.0f, 1.0f);
-        player.getWorld().spawnParticle(Particle.PORTAL, player.getLocation().add(0, 1, 0),
+        plugin.getParticleManager().spawn(Particle.PORTAL, player.getLocation().add(0, 1, 0),
                                      20, 0.5, 0.5, 0.5, 0.1);
     }
 
@@ -342,15 +333,14 @@ public class UltimatesManager implements Listener {
      */
     private void activateDemolitionCharge(Player player) {
         // Set cooldown
-        UUID playerId = player.getUniqueId();
         int DEMOLITION_CHARGE_COOLDOWN = 15; // 15 seconds
-        abilityCooldowns.put(playerId, System.currentTimeMillis() + (DEMOLITION_CHARGE_COOLDOWN * 1000));
+        plugin.getGameManager().getSession(player).setAbilityCooldown(DEMOLITION_CHARGE_COOLDOWN);
         
         Block targetBlock = player.getTargetBlock(null, 5);
         Game game = plugin.getGameManager().getPlayerGame(player); // Get game instance
         if (game == null) return; // Need game instance for checks
 
-        if (targetBlock != null && targetBlock.getType().toString().contains("WOOL")) {
+        if (targetBlock != null && MaterialTraits.isWool(targetBlock.getType())) {
             Set<Block> fireBlocksCreated = new HashSet<>(); // Track fire blocks from this activation
             // Start fire chain reaction, passing the game instance and the tracking set
             burnConnectedWool(game, targetBlock, new HashSet<>(), fireBlocksCreated);
@@ -360,24 +350,24 @@ public class UltimatesManager implements Listener {
             
             // Visual and sound effects
             player.getWorld().playSound(player.getLocation(), Sound.ENTITY_BLAZE_SHOOT, 1.0f, 0.8f);
-            player.getWorld().spawnParticle(Particle.FLAME, targetBlock.getLocation().add(0.5, 0.5, 0.5),
+            plugin.getParticleManager().spawn(Particle.FLAME, targetBlock.getLocation().add(0.5, 0.5, 0.5),
                                         20, 0.5, 0.5, 0.5, 0.05);
-            player.getWorld().spawnParticle(Particle.LARGE_SMOKE, targetBlock.getLocation().add(0.5, 0.5, 0.5),
+            plugin.getParticleManager().spawn(Particle.LARGE_SMOKE, targetBlock.getLocation().add(0.5, 0.5, 0.5),
                                         15, 0.3, 0.3, 0.3, 0.01);
 
             // Schedule a task to remove all tracked fire blocks after 10 seconds
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            game.getTicker().schedule(200L, () -> { // 10 seconds
                 for (Block fireBlock : fireBlocksCreated) {
                     if (fireBlock.getType() == Material.FIRE) {
                         fireBlock.setType(Material.AIR);
                     }
                 }
-            }, 200L); // 10 seconds
+            });
 
         } else {
             player.sendMessage(ChatColor.DARK_RED + "Must target wool blocks!");
             // Refund cooldown
-            abilityCooldowns.remove(playerId);
+            plugin.getGameManager().getSession(player).setAbilityCooldown(0);
         }
     }
     
@@ -387,7 +377,7 @@ public class UltimatesManager implements Listener {
      */
     private void burnConnectedWool(Game game, Block block, Set<Block> processed, Set<Block> fireBlocksCreated) {
         // Check if block is wool, placed by a player, and not already processed
-        if (block != null && block.getType().toString().contains("WOOL") && 
+        if (block != null && MaterialTraits.isWool(block.getType()) && 
             game.isPlacedBlock(block) && // Added check for player-placed block
             !processed.contains(block)) {
             
@@ -397,50 +387,29 @@ public class UltimatesManager implements Listener {
             if (above.getType().isAir()) {
                 above.setType(Material.FIRE);
                 fireBlocksCreated.add(above); // Add to tracking set
+                game.recordFireBlock(above); // Cleared by the game if still burning at the end
             }
             
             // Schedule block to burn away
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                 if (block.getType().toString().contains("WOOL")) { // Re-check type before setting to air
+            game.getTicker().schedule(20L, () -> { // 1 second delay
+                 if (MaterialTraits.isWool(block.getType())) { // Re-check type before setting to air
                      block.setType(Material.AIR);
                  }
-            }, 20L); // 1 second delay
+            });
             
             // Check adjacent blocks
             if (processed.size() < 50) { // Limit recursion depth
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                game.getTicker().schedule(5L, () -> {
                     for (BlockFace face : new BlockFace[]{BlockFace.NORTH, BlockFace.EAST, 
                                                          BlockFace.SOUTH, BlockFace.WEST,
                                                          BlockFace.UP, BlockFace.DOWN}) {
                         burnConnectedWool(game, block.getRelative(face), processed, fireBlocksCreated); // Pass tracking set
                     }
-                }, 5L);
+                });
             }
         }
     }
 
-    /**
-     * Set a Kangaroo's cooldown task ID
-     * 
-     * @param playerId The player UUID
-     * @param taskId The task ID
-     */
-    public void setKangarooCooldownTask(UUID playerId, int taskId) {
-        kangarooCooldownTasks.put(playerId, taskId);
-    }
-
-    /**
-     * Cancel a Kangaroo's cooldown task
-     * 
-     * @param playerId The player UUID
-     */
-    public void cancelKangarooCooldownTask(UUID playerId) {
-        Integer taskId = kangarooCooldownTasks.remove(playerId);
-        if (taskId != null) {
-            Bukkit.getScheduler().cancelTask(taskId);
-        }
-    }
-
     /**
      * Handle fast bridge building for Builder class
      */
@@ -458,13 +427,12 @@ public class UltimatesManager implements Listener {
         }
 
         UUID playerId = player.getUniqueId();
-        if (abilityCooldowns.containsKey(playerId) && 
-            abilityCooldowns.get(playerId) > System.currentTimeMillis()) {
+        if (plugin.getGameManager().getSession(player).isOnAbilityCooldown()) {
             return;
         }
         
         // Set short cooldown to prevent spam
-        abilityCooldowns.put(playerId, System.currentTimeMillis() + (FAST_BRIDGE_COOLDOWN * 1000));
+        plugin.getGameManager().getSession(player).setAbilityCooldown(FAST_BRIDGE_COOLDOWN);
         
         // Use the same wool type that was just placed
         Material woolType = block.getType();
@@ -489,7 +457,7 @@ public class UltimatesManager implements Listener {
                     }
                     
                     // Add visual and sound effects
-                    player.getWorld().spawnParticle(Particle.FALLING_DUST, currentBlock.getLocation().add(0.5, 0.5, 0.5),
+                    plugin.getParticleManager().spawn(Particle.FALLING_DUST, currentBlock.getLocation().add(0.5, 0.5, 0.5),
                         5, 0.3, 0.3, 0.3, 0.1, woolType.createBlockData());
                     player.playSound(currentBlock.getLocation(), Sound.BLOCK_WOOL_PLACE, 0.3f, 1.0f);
                 } else {
@@ -501,9 +469,9 @@ public class UltimatesManager implements Listener {
                 player.setExp(1.0f);
                 
                 // We'll use a brief visual cooldown (1 second)
-                BukkitTask visualTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                GameTicker.Action visualTask = game.getTicker().schedule(20L, () -> {
                     player.setExp(0.0f);
-                }, 20L); // 1 second
+                }); // 1 second
                 
                 // Store the task in case we need to cancel it
                 cooldownTasks.put(playerId, visualTask);
@@ -572,8 +540,6 @@ public class UltimatesManager implements Listener {
       /**
      * Process Kangaroo double jump 
      */    public boolean processKangarooJump(Player player) {
-        UUID playerId = player.getUniqueId();
-
         org.bcnlab.beaconLabsBW.game.Game game = plugin.getGameManager().getPlayerGame(player);
         if (game == null || !game.areUltimatesActive()) {
             player.setAllowFlight(true); // Keep flight enabled if they were supposed to have it
@@ -583,13 +549,12 @@ public class UltimatesManager implements Listener {
         }
         
         // Check if player is on cooldown
-        if (abilityCooldowns.containsKey(playerId) && 
-            abilityCooldowns.get(playerId) > System.currentTimeMillis()) {
+        if (plugin.getGameManager().getSession(player).isOnAbilityCooldown()) {
             return false;
         }
         
         // Set cooldown
-        abilityCooldowns.put(playerId, System.currentTimeMillis() + (KANGAROO_JUMP_COOLDOWN * 1000));
+        plugin.getGameManager().getSession(player).setAbilityCooldown(KANGAROO_JUMP_COOLDOWN);
         
         // Apply jump boost with forward momentum
         Vector velocity = player.getVelocity();
@@ -607,18 +572,19 @@ public class UltimatesManager implements Listener {
         player.addPotionEffect(new PotionEffect(PotionEffectType.RESISTANCE, 60, 3, false, false));
         
         // Add visual and sound effects
-        player.getWorld().spawnParticle(Particle.CLOUD, player.getLocation(), 20, 0.3, 0.1, 0.3, 0.1);
+        plugin.getParticleManager().spawn(Particle.CLOUD, player.getLocation(), 20, 0.3, 0.1, 0.3, 0.1);
         player.getWorld().playSound(player.getLocation(), Sound.ENTITY_BAT_TAKEOFF, 1.0f, 1.0f);
         
         // Add trail particles
-        Bukkit.getScheduler().runTaskTimer(plugin, task -> {
+        GameTicker.Action[] trail = new GameTicker.Action[1];
+        trail[0] = game.getTicker().scheduleRepeating(1L, 2L, () -> {
             if (player.isOnline() && player.getVelocity().getY() > 0) { // Changed from isOnGround check to velocity check
-                player.getWorld().spawnParticle(Particle.CLOUD, player.getLocation().add(0, -0.2, 0), 
+                plugin.getParticleManager().spawn(Particle.CLOUD, player.getLocation().add(0, -0.2, 0), 
                                                1, 0, 0, 0, 0);
             } else {
-                task.cancel();
+                trail[0].cancel();
             }
-        }, 1L, 2L);
+        });
         
         // Set XP bar for cooldown
         startCooldownDisplay(player, KANGAROO_JUMP_COOLDOWN);
@@ -630,13 +596,8 @@ public class UltimatesManager implements Listener {
      * Check if gatherer should duplicate a resource
      */
     public boolean shouldDuplicateResource(Player player) {
-        // Check if player is a gatherer
-        UUID playerId = player.getUniqueId();
-        if (plugin.getGameManager().getPlayerGame(player) == null) {
-            return false;
-        }
-        
-        UltimateClass playerClass = plugin.getGameManager().getPlayerGame(player).getPlayerUltimateClass(playerId);
+        // Null if the player is not in a game or has no class
+        UltimateClass playerClass = getUltimateClass(player);
         if (playerClass == UltimateClass.GATHERER) {
             // 25% chance to duplicate
             return new Random().nextInt(100) < GATHERER_DUPLICATION_CHANCE;
@@ -648,12 +609,8 @@ public class UltimatesManager implements Listener {
      * Handle TNT drop for Demolition class on death
      */
     public void handleDemolitionDeath(Player player) {
-        UUID playerId = player.getUniqueId();
-        if (plugin.getGameManager().getPlayerGame(player) == null) {
-            return;
-        }
-        
-        UltimateClass playerClass = plugin.getGameManager().getPlayerGame(player).getPlayerUltimateClass(playerId);
+        // Null if the player is not in a game or has no class
+        UltimateClass playerClass = getUltimateClass(player);
         if (playerClass == UltimateClass.DEMOLITION) {
             // Drop TNT at death location
             player.getWorld().dropItemNaturally(player.getLocation(), new ItemStack(Material.TNT, 1));
@@ -665,12 +622,8 @@ public class UltimatesManager implements Listener {
      * Handle Kangaroo resource saving on death (50% chance)
      */
     public List<ItemStack> processKangarooDeathItems(Player player, List<ItemStack> drops) {
-        UUID playerId = player.getUniqueId();
-        if (plugin.getGameManager().getPlayerGame(player) == null) {
-            return drops;
-        }
-        
-        UltimateClass playerClass = plugin.getGameManager().getPlayerGame(player).getPlayerUltimateClass(playerId);
+        // Null if the player is not in a game or has no class
+        UltimateClass playerClass = getUltimateClass(player);
         if (playerClass == UltimateClass.KANGAROO && new Random().nextBoolean()) {
             // 50% chance to save items
             List<ItemStack> savedItems = new ArrayList<>();
@@ -678,8 +631,7 @@ public class UltimatesManager implements Listener {
             // Save only resources (iron, gold, emerald, diamond)
             for (ItemStack item : drops) {
                 Material type = item.getType();
-                if (type == Material.IRON_INGOT || type == Material.GOLD_INGOT || 
-                    type == Material.EMERALD || type == Material.DIAMOND) {
+                if (MaterialTraits.isResource(type)) {
                     
                     // Save half of the resources
                     if (item.getAmount() > 1) {
@@ -703,12 +655,8 @@ public class UltimatesManager implements Listener {
      * Give magic milk to Kangaroo when they break a bed
      */
     public void giveMagicMilk(Player player) {
-        UUID playerId = player.getUniqueId();
-        if (plugin.getGameManager().getPlayerGame(player) == null) {
-            return;
-        }
-        
-        UltimateClass playerClass = plugin.getGameManager().getPlayerGame(player).getPlayerUltimateClass(playerId);
+        // Null if the player is not in a game or has no class
+        UltimateClass playerClass = getUltimateClass(player);
         if (playerClass == UltimateClass.KANGAROO) {
             // Create magic milk
             ItemStack milk = new ItemStack(Material.MILK_BUCKET);
@@ -730,18 +678,36 @@ public class UltimatesManager implements Listener {
      * Give diamond upgrade to Gatherer when their bed is destroyed
      */
     public void giveGathererDiamondUpgrade(Player player) {
-        UUID playerId = player.getUniqueId();
-        if (plugin.getGameManager().getPlayerGame(player) == null) {
-            return;
-        }
-        
-        UltimateClass playerClass = plugin.getGameManager().getPlayerGame(player).getPlayerUltimateClass(playerId);
+        // Null if the player is not in a game or has no class
+        UltimateClass playerClass = getUltimateClass(player);
         if (playerClass == UltimateClass.GATHERER) {
             // Give diamonds
             player.getInventory().addItem(new ItemStack(Material.DIAMOND, 5));
             player.sendMessage(ChatColor.LIGHT_PURPLE + "Your Gatherer ability gave you diamonds as compensation!");
         }
     }
+    /**
+     * Get a player's team, safe to call for players that went offline
+     * 
+     * @param player The player
+     * @return The team, or null if the player has no session or no team
+     */
+    private String getTeam(Player player) {
+        PlayerSession session = plugin.getGameManager().getSession(player);
+        return session != null ? session.getTeam() : null;
+    }
+    
+    /**
+     * Get a player's ultimate class, safe to call for players that went offline
+     * 
+     * @param player The player
+     * @return The class, or null if the player has no session or no class
+     */
+    private UltimateClass getUltimateClass(Player player) {
+        PlayerSession session = plugin.getGameManager().getSession(player);
+        return session != null ? session.getUltimateClass() : null;
+    }
+    
       /**
      * Display cooldown on player's XP bar
      * 
@@ -750,9 +716,11 @@ public class UltimatesManager implements Listener {
      */
     public void startCooldownDisplay(Player player, int cooldownSeconds) {
         UUID playerId = player.getUniqueId();
+        Game game = plugin.getGameManager().getPlayerGame(player);
+        if (game == null) return;
         
         // Cancel any existing cooldown task
-        BukkitTask existingTask = cooldownTasks.get(playerId);
+        GameTicker.Action existingTask = cooldownTasks.get(playerId);
         if (existingTask != null) {
             existingTask.cancel();
         }
@@ -762,7 +730,7 @@ public class UltimatesManager implements Listener {
         player.setLevel(cooldownSeconds);
         
         // Create new task to update the XP bar
-        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+        GameTicker.Action task = game.getTicker().scheduleRepeating(20L, 20L, new Runnable() {
             private int secondsLeft = cooldownSeconds;
             
             @Override
@@ -773,7 +741,7 @@ public class UltimatesManager implements Listener {
                     player.playSound(player.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 0.5f, 1.2f);
 
                     // Properly cancel this task
-                    BukkitTask self = cooldownTasks.get(playerId);
+                    GameTicker.Action self = cooldownTasks.get(playerId);
                     if (self != null) {
                         self.cancel();
                     }
@@ -792,7 +760,7 @@ public class UltimatesManager implements Listener {
                 float newExpValue = (float) secondsLeft / cooldownSeconds;
                 player.setExp(newExpValue);
             }
-        }, 20L, 20L);
+        });
         
         cooldownTasks.put(playerId, task);
     }
@@ -806,7 +774,7 @@ public class UltimatesManager implements Listener {
         UUID playerId = player.getUniqueId();
         
         // Cancel any existing cooldown task
-        BukkitTask existingTask = cooldownTasks.get(playerId);
+        GameTicker.Action existingTask = cooldownTasks.get(playerId);
         if (existingTask != null) {
             existingTask.cancel();
             cooldownTasks.remove(playerId);
@@ -817,13 +785,21 @@ public class UltimatesManager implements Listener {
         player.setLevel(0);
     }
     
+    /**
+     * Register the handlers that only apply to ultimates games
+     * 
+     * @param router The event router
+     */
+    public void registerRoutes(GameEventRouter router) {
+        router.register(PlayerDeathEvent.class, GameMode.ULTIMATES, this::onPlayerDeath);
+    }
+    
     /**
      * Reset XP bar when a player dies
      */
-    @EventHandler
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        clearCooldownDisplay(event.getEntity());
-        swordsmanManager.clearTeleportOption(event.getEntity().getUniqueId());
+    private void onPlayerDeath(PlayerDeathEvent event, Player player, PlayerSession session, Game game) {
+        clearCooldownDisplay(player);
+        swordsmanManager.clearTeleportOption(player.getUniqueId());
     }
     
     /**
@@ -833,6 +809,16 @@ public class UltimatesManager implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         clearCooldownDisplay(event.getPlayer());
         swordsmanManager.clearTeleportOption(event.getPlayer().getUniqueId());
+        
+        // Stop effects running on the player
+        GameTicker.Action healerTask = healerTasks.remove(event.getPlayer().getUniqueId());
+        if (healerTask != null) {
+            healerTask.cancel();
+        }
+        GameTicker.Action frozenTask = frozenPlayers.remove(event.getPlayer().getUniqueId());
+        if (frozenTask != null) {
+            frozenTask.cancel();
+        }
     }
     
     /**
@@ -853,19 +839,19 @@ public class UltimatesManager implements Listener {
         }
         
         // Cancel any active cooldown tasks
-        for (BukkitTask task : cooldownTasks.values()) {
+        for (GameTicker.Action task : cooldownTasks.values()) {
             task.cancel();
         }
         cooldownTasks.clear();
         
         // Cancel healer tasks
-        for (BukkitTask task : healerTasks.values()) {
+        for (GameTicker.Action task : healerTasks.values()) {
             task.cancel();
         }
         healerTasks.clear();
         
         // Cancel frozen player tasks
-        for (BukkitTask task : frozenPlayers.values()) {
+        for (GameTicker.Action task : frozenPlayers.values()) {
             task.cancel();
         }
         frozenPlayers.clear();
@@ -3,18 +3,24 @@ package org.bcnlab.beaconLabsBW.generator;
 import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bcnlab.beaconLabsBW.arena.model.GeneratorData;
 import org.bcnlab.beaconLabsBW.game.Game;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
+import org.bukkit.Sound;
 import org.bukkit.World;
-import org.bukkit.entity.ArmorStand;
-import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Item;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 import static org.bcnlab.beaconLabsBW.generator.GeneratorType.*;
 
 /**
@@ -27,152 +33,229 @@ public class ActiveGenerator {
     private final Game game;
     private final Location location;
     
-    private BukkitTask generatorTask;
-    private ArmorStand hologram;
+    private final GeneratorHologram hologram = new GeneratorHologram();
+    
+    // The item entity each resource is currently stacked onto
+    private final Map<Material, Item> outputStacks = new EnumMap<>(Material.class);
+    
+    private final GeneratorType type;
+    
+    // Inputs of the drop rate, the rate is recomputed whenever one of them changes
+    private int tier = 1;
+    private int forgeLevel;
+    private int playerCount;
+    private int periodTicks;
+    
+    // Round-robin position for virtual pickup
+    private int nextReceiver = 0;
     
-    private int timer;
-    private final int interval;      /**
+    // Scheduler ticks of the last drop, the next drop and the next once-per-second update
+    private long lastDropTick;
+    private long nextDropTick;
+    private long nextSecondTick;
+    
+    /**
      * Creates a new active generator
      *
      * @param plugin The plugin instance
      * @param generatorData The generator data
      * @param game The game this generator belongs to
-     */    public ActiveGenerator(BeaconLabsBW plugin, GeneratorData generatorData, Game game) {
+     */
+    public ActiveGenerator(BeaconLabsBW plugin, GeneratorData generatorData, Game game) {
         this.plugin = plugin;
         this.generatorData = generatorData;
         this.game = game;
         this.location = generatorData.getLocation().toBukkitLocation();
-          // Base intervals based on generator type
-        int baseInterval = switch (generatorData.getType()) {
-            case IRON -> plugin.getConfigManager().getIronInterval();
-            case GOLD -> plugin.getConfigManager().getGoldInterval();
-            case TEAM -> plugin.getConfigManager().getIronInterval(); // TEAM generator uses iron interval as base
-            case EMERALD -> plugin.getConfigManager().getEmeraldInterval();
-            case DIAMOND -> plugin.getConfigManager().getDiamondInterval();
-        };
+        this.type = generatorData.getType();
         
-        // Apply forge upgrade interval reduction for TEAM generators
-        if (generatorData.getType() == GeneratorType.TEAM) {
-            String teamName = generatorData.getTeam();
-            if (teamName != null) {
-                int forgeLevel = game.getPlugin().getTeamUpgradeManager().getUpgradeLevel(
-                    teamName, 
-                    org.bcnlab.beaconLabsBW.shop.TeamUpgrade.UpgradeType.FORGE
-                );
-                
-                // Reduce interval based on forge level
-                if (forgeLevel > 0) {
-                    baseInterval = switch (forgeLevel) {
-                        case 1 -> Math.max(baseInterval - 1, 1); // 1 second faster
-                        case 2 -> Math.max(baseInterval - 2, 1); // 2 seconds faster
-                        case 3 -> Math.max(baseInterval - 3, 1); // 3 seconds faster
-                        default -> baseInterval;
-                    };
-                }
-            }
-        }
-        
-        // Scale interval based on number of players (faster with more players)
-        int playerCount = game.getPlayers().size();
-        if (playerCount > 0) {
-            int scaleFactor = Math.min(Math.max(playerCount / 2, 1), 4); // Scale factor between 1-4
-            // Reduce interval (faster spawning) with more players
-            this.interval = Math.max(baseInterval - (scaleFactor - 1), 1);
-        } else {
-            this.interval = baseInterval;
+        // Forge upgrades only apply to TEAM generators
+        String teamName = generatorData.getTeam();
+        if (type == GeneratorType.TEAM && teamName != null) {
+            this.forgeLevel = game.getTeamUpgrades(teamName).get(
+                org.bcnlab.beaconLabsBW.shop.TeamUpgrade.UpgradeType.FORGE
+            );
         }
-        
-        this.timer = interval;
+        this.playerCount = game.getPlayers().size();
+        this.periodTicks = computePeriodTicks();
     }
     
     /**
      * Start the generator
+     * Pulses are driven by the GeneratorScheduler once the game registers this generator
      */
     public void start() {
         if (location == null) return;
         
+        long now = plugin.getGeneratorScheduler().getCurrentTick();
+        lastDropTick = now;
+        nextDropTick = now + periodTicks;
+        nextSecondTick = now + 20;
+        
         // Create hologram
         createHologram();
-          // Start spawning items
-        generatorTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Check if game still exists and is running
-                if (game == null || game.getState() != org.bcnlab.beaconLabsBW.game.GameState.RUNNING) {
-                    return;
-                }
-                
-                if (timer <= 0) {
-                    // Spawn item
-                    spawnResource();
-                    timer = interval;
-                    updateHologram();
-                } else {
-                    timer--;
-                    
-                    if (timer % 5 == 0) {
-                        updateHologram();
-                    }
-                }
-                
-                // Spawn particles
-                spawnParticles();
-            }
-        }.runTaskTimer(plugin, 20L, 20L);
     }
     
     /**
-     * Stop the generator
+     * Advance the generator to the given scheduler tick
+     * 
+     * @param now The current scheduler tick
+     * @return Ticks until the next pulse
      */
-    public void stop() {
-        if (generatorTask != null) {
-            generatorTask.cancel();
+    long pulse(long now) {
+        // Check if game still exists and is running
+        if (game == null || game.getState() != org.bcnlab.beaconLabsBW.game.GameState.RUNNING) {
+            return 20L;
+        }
+        
+        if (now >= nextDropTick) {
+            // Spawn item
+            spawnResource();
+            lastDropTick = now;
+            nextDropTick = now + periodTicks;
+            updateHologram(now);
         }
         
-        if (hologram != null) {
-            hologram.remove();
+        if (now >= nextSecondTick) {
+            nextSecondTick = now + 20;
+            if (getSecondsUntilDrop(now) % 5 == 0) {
+                updateHologram(now);
+            }
+            
+            // Spawn particles
+            spawnParticles(now);
         }
+        
+        return Math.max(1L, Math.min(nextDropTick, nextSecondTick) - now);
     }
     
     /**
-     * Create the hologram display
+     * Set the tier of the generator (diamond and emerald generators)
+     * 
+     * @param tier The new tier
      */
-    private void createHologram() {
-        if (location == null) return;
+    public void setTier(int tier) {
+        this.tier = tier;
+        recalculateRate();
+        updateHologram(plugin.getGeneratorScheduler().getCurrentTick());
+    }
+    
+    /**
+     * Set the forge level of the generator's team
+     * 
+     * @param forgeLevel The new forge level
+     */
+    public void setForgeLevel(int forgeLevel) {
+        this.forgeLevel = forgeLevel;
+        recalculateRate();
+    }
+    
+    /**
+     * Set the number of players the drop rate is scaled for
+     * 
+     * @param playerCount The number of players
+     */
+    public void setPlayerCount(int playerCount) {
+        this.playerCount = playerCount;
+        recalculateRate();
+    }
+    
+    public GeneratorType getType() {
+        return type;
+    }
+    
+    public String getTeam() {
+        return generatorData.getTeam();
+    }
+    
+    /**
+     * Apply a changed rate to the running generator, keeping the time since the last drop
+     */
+    private void recalculateRate() {
+        int newPeriod = computePeriodTicks();
+        if (newPeriod == periodTicks) return;
+        periodTicks = newPeriod;
         
-        World world = location.getWorld();
-        if (world == null) return;
+        // Not started yet, start() schedules the first drop
+        if (nextDropTick == 0) return;
         
-        Location holoLoc = location.clone().add(0, 1.5, 0);
+        long now = plugin.getGeneratorScheduler().getCurrentTick();
+        nextDropTick = Math.max(now + 1, lastDropTick + periodTicks);
+        plugin.getGeneratorScheduler().reschedule(this, nextDropTick);
+    }
+    
+    /**
+     * Compute the drop period from the tier, forge level and player count
+     * 
+     * @return The period in ticks
+     */
+    private int computePeriodTicks() {
+        int base = plugin.getConfigManager().getIntervalTicks(type, tier);
+        int period = base;
         
-        hologram = (ArmorStand) world.spawnEntity(holoLoc, EntityType.ARMOR_STAND);
-        hologram.setVisible(false);
-        hologram.setGravity(false);
-        hologram.setMarker(true);
-        hologram.setCustomNameVisible(true);
+        // Reduce interval based on forge level (1 second per level)
+        if (type == GeneratorType.TEAM && forgeLevel > 0) {
+            period -= Math.min(forgeLevel, 3) * 20;
+        }
         
-        updateHologram();
+        // Scale interval based on number of players (faster with more players)
+        if (playerCount > 0) {
+            int scaleFactor = Math.min(Math.max(playerCount / 2, 1), 4); // Scale factor between 1-4
+            period -= (scaleFactor - 1) * 20;
+        }
+        
+        // Never faster than one drop per second, unless the config itself is faster
+        return Math.max(period, Math.min(base, 20));
+    }
+    
+    private long getSecondsUntilDrop(long now) {
+        return Math.max(0, (nextDropTick - now + 19) / 20);
+    }
+    
+    /**
+     * Stop the generator
+     */
+    public void stop() {
+        hologram.remove();
+    }
+    
+    /**
+     * Create the hologram display
+     */
+    private void createHologram() {
+        // Team generators never show a hologram, so they don't get an entity at all
+        if (location == null || generatorData.getType() == GeneratorType.TEAM) return;
+        
+        game.getResources().track(hologram.spawn(location.clone().add(0, 1.5, 0), getHologramText(nextDropTick - lastDropTick)));
     }
       /**
-     * Update the hologram text
+     * Update the hologram text (only sent to clients if the text changed)
+     * 
+     * @param now The current scheduler tick
      */
-    private void updateHologram() {
-        if (hologram == null) return;
-          String type = switch (generatorData.getType()) {
+    private void updateHologram(long now) {
+        if (generatorData.getType() == GeneratorType.TEAM) return;
+        
+        hologram.setText(getHologramText(nextDropTick - now));
+    }
+    
+    /**
+     * Render the hologram text
+     * 
+     * @param ticksUntilDrop Ticks until the next drop
+     * @return The hologram text
+     */
+    private String getHologramText(long ticksUntilDrop) {
+        String name = switch (generatorData.getType()) {
             case IRON -> "§f§lIron";
             case GOLD -> "§6§lGold";
-            case TEAM -> ""; // No hologram for TEAM generators, we'll handle this below
+            case TEAM -> ""; // Team generators have no hologram
             case EMERALD -> "§a§lEmerald";
             case DIAMOND -> "§b§lDiamond";
         };
-        
-        // Don't show holograms for team generators
-        if (generatorData.getType() == GeneratorType.TEAM) {
-            hologram.setCustomNameVisible(false);
-        } else {
-            hologram.setCustomNameVisible(true);
-            hologram.setCustomName(type + " §7- §r" + timer + "s");
+        if (tier > 1) {
+            name += tier == 2 ? " II" : " III";
         }
+        return name + " §7- §r" + Math.max(0, (ticksUntilDrop + 19) / 20) + "s";
     }
       /**
      * Spawn resource item
@@ -185,16 +268,10 @@ public class ActiveGenerator {
           
         // For TEAM generators, we need to handle dropping both iron and gold
         if (generatorData.getType() == GeneratorType.TEAM) {
-            // Handle team generator with forge upgrade
-            String teamName = generatorData.getTeam();
-            int forgeLevel = 0;
+            // Handle team generator with forge upgrade (level is kept up to date by the game)
+            // Team members standing at the generator receive the resources directly in virtual pickup mode
+            List<Player> receivers = findVirtualReceivers();
             
-            if (teamName != null) {
-                forgeLevel = game.getPlugin().getTeamUpgradeManager().getUpgradeLevel(
-                    teamName, 
-                    org.bcnlab.beaconLabsBW.shop.TeamUpgrade.UpgradeType.FORGE
-                );
-            }
               // Always drop iron, with quantity based on forge level
             int ironCount = 1;
             if (forgeLevel > 0) {
@@ -208,7 +285,7 @@ public class ActiveGenerator {
             
             // Drop iron with appropriate count
             for (int i = 0; i < ironCount; i++) {
-                dropResource(world, location, Material.IRON_INGOT);
+                produceTeamResource(world, Material.IRON_INGOT, receivers);
             }
             
             // Drop gold based on forge upgrade
@@ -222,12 +299,12 @@ public class ActiveGenerator {
                 };
                 
                 for (int i = 0; i < goldCount; i++) {
-                    dropResource(world, location, Material.GOLD_INGOT);
+                    produceTeamResource(world, Material.GOLD_INGOT, receivers);
                 }
             } else {
                 // No forge upgrades, 40% chance for gold
                 if (Math.random() < 0.4) {
-                    dropResource(world, location, Material.GOLD_INGOT);
+                    produceTeamResource(world, Material.GOLD_INGOT, receivers);
                 }
             }
             
@@ -246,6 +323,67 @@ public class ActiveGenerator {
         dropResource(world, location, material);
     }
     
+    /**
+     * Get the team members that receive team generator output directly
+     * 
+     * @return The receivers, empty if virtual pickup is disabled or nobody is in range
+     */
+    private List<Player> findVirtualReceivers() {
+        if (!plugin.getConfigManager().isTeamVirtualPickup() || generatorData.getTeam() == null) {
+            return Collections.emptyList();
+        }
+        
+        double radius = plugin.getConfigManager().getTeamPickupRadius();
+        double radiusSquared = radius * radius;
+        List<Player> receivers = new ArrayList<>();
+        for (UUID memberId : game.getTeamMembers(generatorData.getTeam())) {
+            Player member = Bukkit.getPlayer(memberId);
+            if (member == null || member.isDead() || game.isSpectator(member)
+                    || member.getGameMode() == org.bukkit.GameMode.SPECTATOR
+                    || member.getWorld() != location.getWorld()
+                    || member.getLocation().distanceSquared(location) > radiusSquared) {
+                continue;
+            }
+            receivers.add(member);
+        }
+        return receivers;
+    }
+    
+    /**
+     * Hand one team generator resource to the next receiver (round-robin), or drop it if nobody is in range
+     * 
+     * @param world The world to drop in
+     * @param material The material to produce
+     * @param receivers The team members in pickup range
+     */
+    private void produceTeamResource(World world, Material material, List<Player> receivers) {
+        if (receivers.isEmpty()) {
+            dropResource(world, location, material);
+            return;
+        }
+        
+        Player receiver = receivers.get(Math.floorMod(nextReceiver++, receivers.size()));
+        
+        // Gatherers may get the resource twice, just like when picking it up
+        int amount = 1;
+        if (game.areUltimatesActive() && plugin.getUltimatesManager().shouldDuplicateResource(receiver)) {
+            amount++;
+        }
+        
+        Map<Integer, ItemStack> leftover = receiver.getInventory().addItem(new ItemStack(material, amount));
+        if (leftover.isEmpty()) {
+            receiver.playSound(receiver.getLocation(), Sound.ENTITY_ITEM_PICKUP, 0.2f, 1.8f);
+            return;
+        }
+        
+        // Full inventory, whatever doesn't fit drops as usual
+        for (ItemStack rest : leftover.values()) {
+            for (int i = 0; i < rest.getAmount(); i++) {
+                dropResource(world, location, material);
+            }
+        }
+    }
+    
     /**
      * Helper method to drop a resource item
      * 
@@ -254,54 +392,66 @@ public class ActiveGenerator {
      * @param material The material to drop
      */
     private void dropResource(World world, Location location, Material material) {
+        // Grow the existing stack while it's still lying at the generator
+        Item stack = outputStacks.get(material);
+        if (stack != null && stack.isValid() && !stack.isDead()) {
+            ItemStack stackItem = stack.getItemStack();
+            if (stackItem.getAmount() < getMaxStack(material)) {
+                stackItem.setAmount(stackItem.getAmount() + 1);
+                stack.setItemStack(stackItem);
+                // A growing stack starts its lifetime over
+                game.getDropExpiryQueue().track(stack);
+            }
+            // At the cap the generator simply stops producing until someone picks up
+            return;
+        }
+        
         ItemStack item = new ItemStack(material, 1);
         Location spawnLoc = location.clone().add(0, 0.5, 0);
         
+        // Registered with the game by the item spawn listener like every other drop in the arena
         Item droppedItem = world.dropItem(spawnLoc, item);
+        outputStacks.put(material, droppedItem);
         droppedItem.setVelocity(new Vector(0, 0.1, 0));
         
         // Set custom pickup delay to prevent immediately picking up
         droppedItem.setPickupDelay(10);
         
-        // Entity collection after 45 seconds
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (droppedItem.isValid() && !droppedItem.isDead()) {
-                    droppedItem.remove();
-                }
-            }
-        }.runTaskLater(plugin, 900L); // 45 seconds
+        // Entity collection after 45 seconds, swept by the game's expiry queue
+        game.getDropExpiryQueue().track(droppedItem);
+    }
+    
+    /**
+     * Get the maximum amount a generator stack can grow to
+     * 
+     * @param material The resource material
+     * @return The stack cap
+     */
+    private int getMaxStack(Material material) {
+        return switch (material) {
+            case GOLD_INGOT -> plugin.getConfigManager().getGoldMaxStack();
+            case DIAMOND -> plugin.getConfigManager().getDiamondMaxStack();
+            case EMERALD -> plugin.getConfigManager().getEmeraldMaxStack();
+            default -> plugin.getConfigManager().getIronMaxStack();
+        };
     }
       /**
      * Spawn particles around the generator
      */
-    private void spawnParticles() {
+    private void spawnParticles(long now) {
         if (location == null) return;
         
         World world = location.getWorld();
         if (world == null) return;        Particle particle = switch (generatorData.getType()) {
             case IRON -> Particle.CRIT;
             case GOLD -> Particle.FLAME;
-            case TEAM -> timer % 2 == 0 ? Particle.CRIT : Particle.FLAME; // Alternate between iron and gold particles
+            case TEAM -> (now / 20) % 2 == 0 ? Particle.CRIT : Particle.FLAME; // Alternate between iron and gold particles
             case EMERALD -> Particle.HAPPY_VILLAGER;
             case DIAMOND -> Particle.FLAME;
         };
         
-        for (int i = 0; i < 8; i++) {
-            double angle = 2 * Math.PI * i / 8;
-            double x = location.getX() + 0.5 * Math.cos(angle);
-            double z = location.getZ() + 0.5 * Math.sin(angle);
-            
-            world.spawnParticle(
-                particle,
-                x,
-                location.getY() + 0.2,
-                z,
-                1,
-                0, 0.1, 0,
-                0
-            );
-        }
+        // Ring of 8 particles, only sent to players close enough to see it
+        plugin.getParticleManager().ring(particle, location.clone().add(0, 0.2, 0), 0.5, 8,
+            1, 0, 0.1, 0, 0, null);
     }
 }
@@ -0,0 +1,102 @@
+package org.bcnlab.beaconLabsBW.generator;
+
+import org.bukkit.entity.Item;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Removes generator drops after their lifetime without a scheduled task per item.
+ * All drops share one lifetime, so entries expire in the order they were added and
+ * a sweep only looks at the head of the queue. Lifetimes are counted in game ticks,
+ * so drops last just as many ticks when the server runs behind.
+ */
+public class DropExpiryQueue {
+
+    private final long lifetimeTicks;
+    private final LongSupplier clock;
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    /**
+     * @param lifetimeTicks How many ticks a drop may lie around before it is removed
+     * @param clock The current tick of the game
+     */
+    public DropExpiryQueue(long lifetimeTicks, LongSupplier clock) {
+        this.lifetimeTicks = lifetimeTicks;
+        this.clock = clock;
+    }
+
+    /**
+     * Start (or restart) the lifetime of a dropped item
+     *
+     * @param item The item entity
+     */
+    public void track(Item item) {
+        Entry previous = entries.remove(item.getUniqueId());
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+
+        Entry entry = new Entry(item, clock.getAsLong() + lifetimeTicks);
+        entries.put(item.getUniqueId(), entry);
+        queue.addLast(entry);
+    }
+
+    /**
+     * Stop tracking an item, e.g. because it was picked up
+     *
+     * @param item The item entity
+     */
+    public void untrack(Item item) {
+        Entry entry = entries.remove(item.getUniqueId());
+        if (entry != null) {
+            // Removed lazily when it reaches the head of the queue
+            entry.cancelled = true;
+        }
+    }
+
+    /**
+     * Remove all expired items, call about once per second
+     */
+    public void sweep() {
+        long now = clock.getAsLong();
+        Entry head;
+        while ((head = queue.peekFirst()) != null && (head.cancelled || head.expiresAt <= now)) {
+            queue.pollFirst();
+            if (head.cancelled) continue;
+
+            entries.remove(head.item.getUniqueId());
+            if (head.item.isValid() && !head.item.isDead()) {
+                head.item.remove();
+            }
+        }
+    }
+
+    /**
+     * Forget all tracked items without removing them
+     */
+    public void clear() {
+        queue.clear();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final Item item;
+        private final long expiresAt;
+        private boolean cancelled = false;
+
+        private Entry(Item item, long expiresAt) {
+            this.item = item;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
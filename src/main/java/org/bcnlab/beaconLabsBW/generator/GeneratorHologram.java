@@ -0,0 +1,63 @@
+package org.bcnlab.beaconLabsBW.generator;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.TextDisplay;
+
+/**
+ * Floating text above a generator, backed by a single TextDisplay entity.
+ * The text is only sent to clients when it actually changes.
+ */
+public class GeneratorHologram {
+
+    private TextDisplay display;
+    private String text;
+
+    /**
+     * Spawn the hologram (does nothing if it already exists)
+     *
+     * @param location The location of the text
+     * @param initialText The text to show
+     * @return The display entity, or null if the world is not loaded
+     */
+    public TextDisplay spawn(Location location, String initialText) {
+        if (display != null && display.isValid()) return display;
+
+        World world = location.getWorld();
+        if (world == null) return null;
+
+        text = initialText;
+        display = world.spawn(location, TextDisplay.class, entity -> {
+            entity.setText(initialText);
+            entity.setBillboard(Display.Billboard.CENTER);
+            entity.setShadowed(true);
+            // Holograms belong to a running game, never save them with the world
+            entity.setPersistent(false);
+        });
+        return display;
+    }
+
+    /**
+     * Change the hologram text
+     *
+     * @param newText The text to show
+     */
+    public void setText(String newText) {
+        if (display == null || newText.equals(text)) return;
+
+        text = newText;
+        display.setText(newText);
+    }
+
+    /**
+     * Remove the hologram entity
+     */
+    public void remove() {
+        if (display != null) {
+            display.remove();
+            display = null;
+        }
+        text = null;
+    }
+}
@@ -0,0 +1,164 @@
+package org.bcnlab.beaconLabsBW.generator;
+
+import lombok.Getter;
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Drives all active generators of all games from a single tick task.
+ * Generators are kept in a queue ordered by the tick they fire next, so a tick only
+ * touches the generators that are due. Generator work per tick is capped by a time budget;
+ * generators that don't fit are deferred to the next tick.
+ */
+public class GeneratorScheduler {
+
+    private final BeaconLabsBW plugin;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(entry -> entry.nextTick));
+    private final Map<ActiveGenerator, Entry> entries = new IdentityHashMap<>();
+
+    private BukkitTask task;
+    @Getter
+    private long currentTick = 0;
+
+    // Cost statistics
+    @Getter
+    private long totalPulses = 0;
+    @Getter
+    private long deferredPulses = 0;
+    @Getter
+    private long lastTickNanos = 0;
+    @Getter
+    private long maxTickNanos = 0;
+
+    public GeneratorScheduler(BeaconLabsBW plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the scheduler task
+     */
+    public void start() {
+        if (task != null) return;
+        task = plugin.getServer().getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stop the scheduler task and forget all generators
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        queue.clear();
+        entries.clear();
+    }
+
+    /**
+     * Register a generator, its first pulse happens after the given delay
+     *
+     * @param generator The generator
+     * @param delayTicks Ticks until the first pulse
+     */
+    public void register(ActiveGenerator generator, long delayTicks) {
+        if (entries.containsKey(generator)) return;
+
+        Entry entry = new Entry(generator, currentTick + Math.max(1, delayTicks));
+        entries.put(generator, entry);
+        queue.add(entry);
+    }
+
+    /**
+     * Move the next pulse of a generator forward, e.g. after its rate increased
+     *
+     * @param generator The generator
+     * @param tick The scheduler tick the generator should pulse at (later ticks are ignored)
+     */
+    public void reschedule(ActiveGenerator generator, long tick) {
+        Entry entry = entries.get(generator);
+        if (entry == null || entry.nextTick <= tick) return;
+
+        // The old entry is skipped lazily, the generator continues with the new one
+        entry.cancelled = true;
+        Entry earlier = new Entry(generator, Math.max(tick, currentTick + 1));
+        entries.put(generator, earlier);
+        queue.add(earlier);
+    }
+
+    /**
+     * Unregister a generator, it won't pulse anymore
+     *
+     * @param generator The generator
+     */
+    public void unregister(ActiveGenerator generator) {
+        Entry entry = entries.remove(generator);
+        if (entry != null) {
+            // Removed lazily when it reaches the head of the queue
+            entry.cancelled = true;
+        }
+    }
+
+    /**
+     * Get the number of registered generators
+     *
+     * @return The generator count
+     */
+    public int getGeneratorCount() {
+        return entries.size();
+    }
+
+    private void tick() {
+        currentTick++;
+
+        long start = System.nanoTime();
+        long deadline = start + plugin.getConfigManager().getGeneratorMaxMillisPerTick() * 1_000_000L;
+
+        Entry head;
+        while ((head = queue.peek()) != null && head.nextTick <= currentTick) {
+            queue.poll();
+            if (head.cancelled) continue;
+
+            // Over budget: push the remaining due generators to the next tick
+            if (System.nanoTime() > deadline) {
+                head.nextTick = currentTick + 1;
+                queue.add(head);
+                deferredPulses++;
+                continue;
+            }
+
+            long delay;
+            try {
+                delay = head.generator.pulse(currentTick);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Generator pulse failed: " + e.getMessage());
+                delay = 20L;
+            }
+            totalPulses++;
+
+            // The generator may have been stopped during its own pulse
+            if (!head.cancelled) {
+                head.nextTick = currentTick + Math.max(1L, delay);
+                queue.add(head);
+            }
+        }
+
+        lastTickNanos = System.nanoTime() - start;
+        maxTickNanos = Math.max(maxTickNanos, lastTickNanos);
+    }
+
+    private static final class Entry {
+        private final ActiveGenerator generator;
+        private long nextTick;
+        private boolean cancelled = false;
+
+        private Entry(ActiveGenerator generator, long nextTick) {
+            this.generator = generator;
+            this.nextTick = nextTick;
+        }
+    }
+}
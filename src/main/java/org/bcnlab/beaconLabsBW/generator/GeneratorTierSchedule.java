@@ -0,0 +1,74 @@
+package org.bcnlab.beaconLabsBW.generator;
+
+import org.bcnlab.beaconLabsBW.config.ConfigManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The generator tier upgrades of one match (e.g. Diamond II after 6 minutes),
+ * computed once when the generators start so the game timer only checks the next step.
+ */
+public class GeneratorTierSchedule {
+
+    /**
+     * One tier upgrade
+     *
+     * @param time Seconds after the game start
+     * @param type The generator type that is upgraded
+     * @param tier The new tier
+     */
+    public record Step(int time, GeneratorType type, int tier) {}
+
+    // Generator types that have tiers
+    private static final Set<GeneratorType> TIERED_TYPES = EnumSet.of(GeneratorType.DIAMOND, GeneratorType.EMERALD);
+
+    private final List<Step> steps;
+    private int next = 0;
+
+    private GeneratorTierSchedule(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Build the schedule for the generators of a match
+     *
+     * @param config The config to read the tier times from
+     * @param generators The generators of the match
+     * @return The schedule
+     */
+    public static GeneratorTierSchedule create(ConfigManager config, Collection<ActiveGenerator> generators) {
+        // Only types that exist in this arena get steps (no "Diamond II" message without diamond generators)
+        Set<GeneratorType> types = EnumSet.noneOf(GeneratorType.class);
+        for (ActiveGenerator generator : generators) {
+            if (TIERED_TYPES.contains(generator.getType())) {
+                types.add(generator.getType());
+            }
+        }
+
+        List<Step> steps = new ArrayList<>();
+        for (GeneratorType type : types) {
+            steps.add(new Step(config.getTierTwoTime(), type, 2));
+            steps.add(new Step(config.getTierThreeTime(), type, 3));
+        }
+        steps.sort(Comparator.comparingInt(Step::time));
+        return new GeneratorTierSchedule(steps);
+    }
+
+    /**
+     * Get the next step if it is due
+     *
+     * @param elapsedSeconds Seconds since the game start
+     * @return The due step, or null if no step is due
+     */
+    public Step poll(int elapsedSeconds) {
+        if (next >= steps.size() || steps.get(next).time() > elapsedSeconds) {
+            return null;
+        }
+        return steps.get(next++);
+    }
+}
@@ -4,7 +4,9 @@ import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bcnlab.beaconLabsBW.arena.model.Arena;
 import org.bcnlab.beaconLabsBW.game.Game;
 import org.bcnlab.beaconLabsBW.game.GameState;
+import org.bcnlab.beaconLabsBW.game.PlayerSession;
 import org.bcnlab.beaconLabsBW.utils.MessageUtils;
+import org.bcnlab.beaconLabsBW.utils.MaterialTraits;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
@@ -27,22 +29,13 @@ public class BlockListener implements Listener {
         this.plugin = plugin;
     }
     
-    // List of blocks that can be broken by players (blocks sold in the shop)
-    private static final java.util.Set<Material> BREAKABLE_BLOCKS = new java.util.HashSet<>(java.util.Arrays.asList(
-        Material.WHITE_WOOL, Material.RED_WOOL, Material.BLUE_WOOL, Material.GREEN_WOOL,
-        Material.YELLOW_WOOL, Material.LIGHT_BLUE_WOOL, Material.PINK_WOOL, Material.GRAY_WOOL,
-        Material.OAK_PLANKS, Material.STONE, Material.END_STONE, Material.OBSIDIAN, 
-        Material.TERRACOTTA, Material.GLASS
-    ));
-    
     /**
-     * Check if a material is a block that can be broken by players
+     * Register the handlers of events that are shared with other listeners
      * 
-     * @param material Block material
-     * @return true if breakable, false otherwise
+     * @param router The event router
      */
-    private boolean isBreakableBlock(Material material) {
-        return material != null && BREAKABLE_BLOCKS.contains(material);
+    public void registerRoutes(GameEventRouter router) {
+        router.register(BlockBreakEvent.class, this::onBlockBreak);
     }
     
     @EventHandler(priority = EventPriority.HIGHEST)
@@ -81,7 +74,7 @@ public class BlockListener implements Listener {
                 }
                 
                 // Spawn primed TNT instead
-                TNTPrimed tnt = player.getWorld().spawn(block.getLocation().add(0.5, 0.0, 0.5), TNTPrimed.class);
+                TNTPrimed tnt = game.getResources().track(player.getWorld().spawn(block.getLocation().add(0.5, 0.0, 0.5), TNTPrimed.class));
                 tnt.setFuseTicks(40); // 2-second fuse (40 ticks)
                 tnt.setSource(player); // Set the player as the source
                 
@@ -96,18 +89,13 @@ public class BlockListener implements Listener {
         }
         
         // Check if this block is placed in an active arena
-        for (Game activeGame : plugin.getGameManager().getActiveGames().values()) {
-            if (block.getWorld().getName().equals(activeGame.getArena().getWorldName())) {
-                // Can't place blocks in an active arena if not in the game
-                event.setCancelled(true);
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou can't modify active game arenas!");
-                return;
-            }
+        if (plugin.getGameManager().getGameByWorld(block.getWorld()) != null) {
+            // Can't place blocks in an active arena if not in the game
+            event.setCancelled(true);
+            MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou can't modify active game arenas!");
         }
     }
-      @EventHandler(priority = EventPriority.HIGHEST)
-    public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
+    private void onBlockBreak(BlockBreakEvent event, Player player, PlayerSession session, Game game) {
         Block block = event.getBlock();
         
         // Check if player is in edit mode
@@ -118,7 +106,6 @@ public class BlockListener implements Listener {
         }
         
         // Check if player is in a game
-        Game game = plugin.getGameManager().getPlayerGame(player);
         if (game != null) {
             if (game.getState() != GameState.RUNNING) {
                 // Can't break blocks before game starts
@@ -128,7 +115,7 @@ public class BlockListener implements Listener {
             }
             
             // Check if this is a bed block (handled by PlayerListener)
-            if (isBedBlock(block.getType())) {
+            if (MaterialTraits.isBed(block.getType())) {
                 // Cancel the event - PlayerListener will handle the bed breaking
                 event.setCancelled(true);
                 // Prevent item drops from beds
@@ -137,6 +124,8 @@ public class BlockListener implements Listener {
             }
               // Allow breaking blocks that were placed during the game
             if (game.isPlacedBlock(block)) {
+                // The position goes back to air, so stop tracking it
+                game.removePlacedBlock(block);
                 return;
             } 
             // Don't allow breaking blocks that weren't placed by players, even if they're OP
@@ -149,17 +138,10 @@ public class BlockListener implements Listener {
         }
         
         // Check if this block is in an active arena
-        for (Game activeGame : plugin.getGameManager().getActiveGames().values()) {
-            if (block.getWorld().getName().equals(activeGame.getArena().getWorldName())) {
-                // Can't break blocks in an active arena if not in the game
-                event.setCancelled(true);
-                MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou can't modify active game arenas!");
-                return;
-            }
+        if (plugin.getGameManager().getGameByWorld(block.getWorld()) != null) {
+            // Can't break blocks in an active arena if not in the game
+            event.setCancelled(true);
+            MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou can't modify active game arenas!");
         }
     }
-    
-    private boolean isBedBlock(Material material) {
-        return material != null && material.name().contains("BED");
-    }
 }
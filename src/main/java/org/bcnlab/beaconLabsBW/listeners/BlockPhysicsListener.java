@@ -6,9 +6,11 @@ import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBurnEvent;
 import org.bukkit.event.block.BlockFadeEvent;
 import org.bukkit.event.block.BlockFormEvent;
 import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
 import org.bukkit.event.block.BlockPhysicsEvent;
 import org.bukkit.event.block.BlockSpreadEvent;
 import org.bukkit.event.block.BlockPistonExtendEvent;
@@ -116,6 +118,28 @@ public class BlockPhysicsListener implements Listener {
         }
     }
     
+    /**
+     * Track fire created by ignition (flint and steel, fireballs, explosions, spread)
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockIgnite(BlockIgniteEvent event) {
+        Game game = plugin.getGameManager().getGameByWorld(event.getBlock().getWorld());
+        if (game != null) {
+            game.recordFireBlock(event.getBlock());
+        }
+    }
+    
+    /**
+     * Track burned blocks, which may be replaced by fire
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        Game game = plugin.getGameManager().getGameByWorld(event.getBlock().getWorld());
+        if (game != null) {
+            game.recordFireBlock(event.getBlock());
+        }
+    }
+    
     /**
      * Determines if a block should be protected from modification
      * 
@@ -124,12 +148,12 @@ public class BlockPhysicsListener implements Listener {
      */
     private boolean shouldProtectBlock(Block block) {
         // Check if this block is in a running game
-        for (Game game : plugin.getGameManager().getActiveGames().values()) {
-            if (game.getArena().getWorldName().equals(block.getWorld().getName())) {
-                // Protect any blocks that weren't placed by players
-                return !game.isPlacedBlock(block);
-            }
+        Game game = plugin.getGameManager().getGameByWorld(block.getWorld());
+        if (game == null || !game.isInRegion(block)) {
+            return false;
         }
-        return false;
+        
+        // Protect any blocks that weren't placed by players
+        return !game.isPlacedBlock(block);
     }
 }
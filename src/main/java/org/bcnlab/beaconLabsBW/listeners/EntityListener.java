@@ -3,27 +3,30 @@ package org.bcnlab.beaconLabsBW.listeners;
 import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bcnlab.beaconLabsBW.game.Game;
 import org.bcnlab.beaconLabsBW.game.GameState;
+import org.bcnlab.beaconLabsBW.game.GameTicker;
+import org.bcnlab.beaconLabsBW.game.PlayerSession;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.*;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.*;
 import org.bukkit.metadata.FixedMetadataValue;
 import org.bukkit.event.hanging.HangingBreakByEntityEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
 import java.util.UUID;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.Block;
 import org.bukkit.util.Vector;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.inventory.ItemStack;
 import org.bcnlab.beaconLabsBW.arena.model.TeamData;
+import org.bcnlab.beaconLabsBW.utils.MaterialTraits;
 import org.bukkit.event.entity.ExplosionPrimeEvent;
 import org.bukkit.entity.TNTPrimed;
-import org.bukkit.scheduler.BukkitTask;
 
 /**
  * Handles entity-related events for BedWars
@@ -42,22 +45,17 @@ public class EntityListener implements Listener {
         // Prevent regular iron golems from spawning naturally in the world
         if (entity instanceof IronGolem && !entity.hasMetadata("team")) {
             // Only allow custom iron golems (Dream Defenders)
-            for (Game game : plugin.getGameManager().getActiveGames().values()) {
-                if (entity.getWorld().getName().equals(game.getArena().getWorldName())) {
-                    event.setCancelled(true);
-                    return;
-                }
+            if (plugin.getGameManager().getGameByWorld(entity.getWorld()) != null) {
+                event.setCancelled(true);
+                return;
             }
         }
         
         // Prevent natural mob spawning in game worlds
         if (entity instanceof Monster || entity instanceof Animals) {
-            for (Game game : plugin.getGameManager().getActiveGames().values()) {
-                if (entity.getWorld().getName().equals(game.getArena().getWorldName())) {
-                    // Cancel natural spawning
-                    event.setCancelled(true);
-                    return;
-                }
+            if (plugin.getGameManager().getGameByWorld(entity.getWorld()) != null) {
+                // Cancel natural spawning
+                event.setCancelled(true);
             }
         }
     }
@@ -66,19 +64,19 @@ public class EntityListener implements Listener {
         Entity entity = event.getEntity();
         
         // For TNT in game, limit explosion blocks to only player-placed blocks
-        for (Game game : plugin.getGameManager().getActiveGames().values()) {
-            if (entity.getWorld().getName().equals(game.getArena().getWorldName())) {
-                if (game.getState() == GameState.RUNNING) {
-                    // Only affect player-placed blocks
-                    event.blockList().removeIf(block -> !game.isPlacedBlock(block));
-                      // Preserve certain blocks
-                    event.blockList().removeIf(block -> block.getType().name().contains("BED"));
-                } else {
-                    // Cancel explosion if game is not running
-                    event.setCancelled(true);
-                }
-                return;
-            }
+        Game game = plugin.getGameManager().getGameByWorld(entity.getWorld());
+        if (game == null) {
+            return;
+        }
+        
+        if (game.getState() == GameState.RUNNING) {
+            // Only affect player-placed blocks
+            event.blockList().removeIf(block -> !game.isPlacedBlock(block));
+            // Preserve certain blocks
+            event.blockList().removeIf(block -> MaterialTraits.isBed(block.getType()));
+        } else {
+            // Cancel explosion if game is not running
+            event.setCancelled(true);
         }
     }
     
@@ -102,11 +100,8 @@ public class EntityListener implements Listener {
             }
             
             // Check if this is in an active arena
-            for (Game activeGame : plugin.getGameManager().getActiveGames().values()) {
-                if (event.getEntity().getWorld().getName().equals(activeGame.getArena().getWorldName())) {
-                    event.setCancelled(true);
-                    return;
-                }
+            if (plugin.getGameManager().getGameByWorld(event.getEntity().getWorld()) != null) {
+                event.setCancelled(true);
             }
         }
     }
@@ -126,9 +121,9 @@ public class EntityListener implements Listener {
       @EventHandler
     public void onEntityTarget(EntityTargetEvent event) {
         if (event.getTarget() instanceof Player player) {
-            Game game = plugin.getGameManager().getPlayerGame(player);
+            PlayerSession session = plugin.getGameManager().getSession(player);
             
-            if (game != null && game.isSpectator(player)) {
+            if (session != null && session.isSpectator()) {
                 // Mobs should not target spectators
                 event.setCancelled(true);
                 return;
@@ -140,7 +135,7 @@ public class EntityListener implements Listener {
                 String golemTeam = golem.getMetadata("team").get(0).asString();
                 
                 // Get the target player's team
-                String playerTeam = game != null ? game.getPlayerTeam(player) : null;
+                String playerTeam = session != null ? session.getTeam() : null;
                 
                 // Cancel targeting if player is on the same team as the golem
                 if (golemTeam != null && golemTeam.equals(playerTeam)) {
@@ -153,30 +148,61 @@ public class EntityListener implements Listener {
     @EventHandler
     public void onEntityPickupItem(EntityPickupItemEvent event) {
         if (event.getEntity() instanceof Player player) {
-            Game game = plugin.getGameManager().getPlayerGame(player);
+            PlayerSession session = plugin.getGameManager().getSession(player);
             
-            if (game != null && game.isSpectator(player)) {
+            if (session != null && session.isSpectator()) {
                 // Spectators can't pick up items
                 event.setCancelled(true);
             }
         }
     }
     
+    /**
+     * Stop the expiry countdown of generator drops that were picked up completely
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemPickedUp(EntityPickupItemEvent event) {
+        if (event.getRemaining() > 0) return;
+        
+        Game game = plugin.getGameManager().getGameByWorld(event.getItem().getWorld());
+        if (game != null) {
+            game.getDropExpiryQueue().untrack(event.getItem());
+        }
+    }
+    
+    /**
+     * Register every item dropped in an arena with its game: generator output, death drops and thrown items
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemSpawn(ItemSpawnEvent event) {
+        Item item = event.getEntity();
+        Game game = plugin.getGameManager().getGameByWorld(item.getWorld());
+        if (game != null && game.isInRegion(item.getLocation().getBlock())) {
+            game.getResources().track(item);
+        }
+    }
+    
+    /**
+     * Remove entities left behind by a game that no longer runs, e.g. after a crash
+     */
+    @EventHandler
+    public void onEntitiesLoad(EntitiesLoadEvent event) {
+        plugin.getGameManager().removeStrayEntities(event.getEntities());
+    }
+    
     @EventHandler
     public void onCreatureSpawn(CreatureSpawnEvent event) {
         Entity entity = event.getEntity();
         CreatureSpawnEvent.SpawnReason reason = event.getSpawnReason();
 
         // Allow only specific spawn reasons in game worlds
-        for (Game game : plugin.getGameManager().getActiveGames().values()) {
-            if (entity.getWorld().getName().equals(game.getArena().getWorldName())) {
-                // Allow CUSTOM (our golem), SPAWNER_EGG, DISPENSE_EGG
-                if (reason != CreatureSpawnEvent.SpawnReason.CUSTOM && 
-                    reason != CreatureSpawnEvent.SpawnReason.SPAWNER_EGG && 
-                    reason != CreatureSpawnEvent.SpawnReason.DISPENSE_EGG) {
-                    plugin.getLogger().info("[EntityListener] Cancelling creature spawn reason: " + reason + " for entity: " + entity.getType());
-                    event.setCancelled(true);
-                }
+        if (plugin.getGameManager().getGameByWorld(entity.getWorld()) != null) {
+            // Allow CUSTOM (our golem), SPAWNER_EGG, DISPENSE_EGG
+            if (reason != CreatureSpawnEvent.SpawnReason.CUSTOM && 
+                reason != CreatureSpawnEvent.SpawnReason.SPAWNER_EGG && 
+                reason != CreatureSpawnEvent.SpawnReason.DISPENSE_EGG) {
+                plugin.getLogger().info("[EntityListener] Cancelling creature spawn reason: " + reason + " for entity: " + entity.getType());
+                event.setCancelled(true);
             }
         }
     }
@@ -195,66 +221,55 @@ public class EntityListener implements Listener {
         UUID golemUUID = golem.getUniqueId(); // For logging
         plugin.getLogger().info("[DreamDefender AI] Starting targeting task for Golem " + golemUUID + " on team " + golemTeam);
         
-        for (Game game : plugin.getGameManager().getActiveGames().values()) {
-            if (golem.getWorld().getName().equals(game.getArena().getWorldName())) {
-                // Ensure this game actually contains the golem's owner if possible?
-                // Or just rely on world match, which should be sufficient.
-
-                // Schedule a repeating task to find targets
-                BukkitTask targetingTask = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        // Check if the golem is still valid
-                        if (!golem.isValid() || golem.isDead()) {
-                            plugin.getLogger().info("[DreamDefender AI] Golem " + golemUUID + " invalid/dead. Cancelling task " + this.getTaskId());
-                            this.cancel(); // Use this.cancel() inside BukkitRunnable
-                            return;
-                        }
-                        
-                        LivingEntity currentTarget = golem.getTarget();
-                        if (currentTarget != null && currentTarget.isValid() && !currentTarget.isDead()) {
-                            return; // Already has a valid target
-                        }
-                        
-                        Player nearestEnemy = null;
-                        double nearestDistanceSq = 20.0 * 20.0; // Max target range (squared)
-                        
-                        for (UUID playerId : game.getPlayers()) {
-                            Player otherPlayer = Bukkit.getPlayer(playerId);
-                            if (otherPlayer == null || !otherPlayer.isOnline() || game.isSpectator(otherPlayer) || !otherPlayer.getWorld().equals(golem.getWorld())) {
-                                continue; 
-                            }
-                            String playerTeam = game.getPlayerTeam(otherPlayer);
-                            if (playerTeam != null && !playerTeam.equals(golemTeam)) {
-                                double distanceSq = otherPlayer.getLocation().distanceSquared(golem.getLocation());
-                                if (distanceSq < nearestDistanceSq) {
-                                    nearestEnemy = otherPlayer;
-                                    nearestDistanceSq = distanceSq;
-                                }
-                            }
-                        }
-                        
-                        if (nearestEnemy != null) {
-                            plugin.getLogger().info("[DreamDefender AI] Task " + this.getTaskId() + " for Golem " + golemUUID + " found target: " + nearestEnemy.getName() + ". Setting target.");
-                            golem.setTarget(nearestEnemy);
-                        } else {
-                             if (golem.getTarget() != null) {
-                                 plugin.getLogger().info("[DreamDefender AI] Task " + this.getTaskId() + " for Golem " + golemUUID + " clearing target.");
-                                 golem.setTarget(null);
-                             }
-                        }
+        Game game = plugin.getGameManager().getGameByWorld(golem.getWorld());
+        if (game == null) {
+            plugin.getLogger().warning("[DreamDefender AI] Golem " + golemUUID + " is not in a game world, cannot start targeting task.");
+            return;
+        }
+        
+        // Look for targets every second on the game's ticker, so the search ends with the game
+        final GameTicker.Action[] targeting = new GameTicker.Action[1];
+        targeting[0] = game.getTicker().scheduleRepeating(20L, 20L, () -> {
+            // Check if the golem is still valid
+            if (!golem.isValid() || golem.isDead()) {
+                plugin.getLogger().info("[DreamDefender AI] Golem " + golemUUID + " invalid/dead. Stopping targeting.");
+                targeting[0].cancel();
+                return;
+            }
+            
+            LivingEntity currentTarget = golem.getTarget();
+            if (currentTarget != null && currentTarget.isValid() && !currentTarget.isDead()) {
+                return; // Already has a valid target
+            }
+            
+            Player nearestEnemy = null;
+            double nearestDistanceSq = 20.0 * 20.0; // Max target range (squared)
+            
+            for (UUID playerId : game.getPlayers()) {
+                Player otherPlayer = Bukkit.getPlayer(playerId);
+                if (otherPlayer == null || !otherPlayer.isOnline() || game.isSpectator(otherPlayer) || !otherPlayer.getWorld().equals(golem.getWorld())) {
+                    continue; 
+                }
+                String playerTeam = game.getPlayerTeam(otherPlayer);
+                if (playerTeam != null && !playerTeam.equals(golemTeam)) {
+                    double distanceSq = otherPlayer.getLocation().distanceSquared(golem.getLocation());
+                    if (distanceSq < nearestDistanceSq) {
+                        nearestEnemy = otherPlayer;
+                        nearestDistanceSq = distanceSq;
                     }
-                }.runTaskTimer(plugin, 20L, 20L); // Schedule the runnable
-                
-                int taskId = targetingTask.getTaskId();
-
-                // Store the task ID with the golem
-                golem.setMetadata("targeting_task", new FixedMetadataValue(plugin, taskId)); 
-
-                plugin.getLogger().info("[DreamDefender AI] Targeting task scheduled for Golem " + golemUUID + " with task ID: " + taskId);
-                break; // Found the game, stop looping
+                }
             }
-        }
+            
+            if (nearestEnemy != null) {
+                plugin.getLogger().info("[DreamDefender AI] Golem " + golemUUID + " found target: " + nearestEnemy.getName() + ". Setting target.");
+                golem.setTarget(nearestEnemy);
+            } else if (golem.getTarget() != null) {
+                plugin.getLogger().info("[DreamDefender AI] Golem " + golemUUID + " clearing target.");
+                golem.setTarget(null);
+            }
+        });
+        
+        plugin.getLogger().info("[DreamDefender AI] Targeting scheduled for Golem " + golemUUID + " in game " + game.getGameId());
     }
     
     @EventHandler
@@ -304,26 +319,23 @@ public class EntityListener implements Listener {
                     }
 
                     final BlockFace finalBridgeDirection = bridgeDirection;
-                    new BukkitRunnable() {
-                        int blocksPlaced = 0;
-                        Location currentBlockLoc = impactLocation.getBlock().getLocation();
-
-                        @Override
-                        public void run() {
-                            if (blocksPlaced >= 15 || game.getState() != GameState.RUNNING) { // Max bridge length 15 blocks
-                                cancel();
-                                return;
-                            }
+                    final int[] blocksPlaced = {0};
+                    final Location currentBlockLoc = impactLocation.getBlock().getLocation();
+                    final GameTicker.Action[] bridgeTask = new GameTicker.Action[1];
+                    bridgeTask[0] = game.getTicker().scheduleRepeating(1L, 2L, () -> { // Place a block every 2 ticks
+                        if (blocksPlaced[0] >= 15 || game.getState() != GameState.RUNNING) { // Max bridge length 15 blocks
+                            bridgeTask[0].cancel();
+                            return;
+                        }
 
-                            Block blockToPlace = currentBlockLoc.getBlock();
-                            if (blockToPlace.getType() == Material.AIR || blockToPlace.isLiquid()) {
-                                blockToPlace.setType(bridgeMaterial);
-                                game.recordPlacedBlock(blockToPlace); // Track for cleanup
-                                blocksPlaced++;
-                            }
-                            currentBlockLoc.add(finalBridgeDirection.getModX(), finalBridgeDirection.getModY(), finalBridgeDirection.getModZ());
+                        Block blockToPlace = currentBlockLoc.getBlock();
+                        if (blockToPlace.getType() == Material.AIR || blockToPlace.isLiquid()) {
+                            blockToPlace.setType(bridgeMaterial);
+                            game.recordPlacedBlock(blockToPlace); // Track for cleanup
+                            blocksPlaced[0]++;
                         }
-                    }.runTaskTimer(plugin, 0L, 2L); // Place a block every 2 ticks
+                        currentBlockLoc.add(finalBridgeDirection.getModX(), finalBridgeDirection.getModY(), finalBridgeDirection.getModZ());
+                    });
 
                     // Remove the metadata so it doesn't trigger again if something else interacts with the egg entity
                     projectile.removeMetadata("bridge_egg", plugin);
@@ -392,11 +404,8 @@ public class EntityListener implements Listener {
     @EventHandler
     public void onHangingBreak(org.bukkit.event.hanging.HangingBreakEvent event) {
         // Prevent breaking of hanging entities (item frames, paintings) in game worlds
-        for (Game game : plugin.getGameManager().getActiveGames().values()) {
-            if (event.getEntity().getWorld().getName().equals(game.getArena().getWorldName())) {
-                event.setCancelled(true);
-                return;
-            }
+        if (plugin.getGameManager().getGameByWorld(event.getEntity().getWorld()) != null) {
+            event.setCancelled(true);
         }
     }
     
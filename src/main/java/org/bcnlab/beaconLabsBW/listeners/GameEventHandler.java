@@ -0,0 +1,26 @@
+package org.bcnlab.beaconLabsBW.listeners;
+
+import org.bcnlab.beaconLabsBW.game.Game;
+import org.bcnlab.beaconLabsBW.game.PlayerSession;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+
+/**
+ * A handler that receives a player event from the {@link GameEventRouter}
+ * together with the already resolved session and game of the player
+ *
+ * @param <E> The event type
+ */
+@FunctionalInterface
+public interface GameEventHandler<E extends Event> {
+
+    /**
+     * Handle the event
+     *
+     * @param event The event
+     * @param player The player the event is about
+     * @param session The player's session
+     * @param game The player's game, null for handlers of every player when the player is not in a game
+     */
+    void handle(E event, Player player, PlayerSession session, Game game);
+}
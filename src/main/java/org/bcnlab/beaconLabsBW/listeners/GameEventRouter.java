@@ -0,0 +1,113 @@
+package org.bcnlab.beaconLabsBW.listeners;
+
+import org.bcnlab.beaconLabsBW.BeaconLabsBW;
+import org.bcnlab.beaconLabsBW.game.Game;
+import org.bcnlab.beaconLabsBW.game.GameMode;
+import org.bcnlab.beaconLabsBW.game.PlayerSession;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The only Bukkit listener for the player events that several parts of the plugin care about.
+ * Resolves the player's session and game once per event, then calls the handlers for every
+ * player followed by the handlers of the game's mode. Handlers of a mode are only called for
+ * games of that mode, so e.g. the ultimates handlers cost nothing while no ultimates game runs.
+ */
+public class GameEventRouter implements Listener {
+
+    private final BeaconLabsBW plugin;
+
+    // Handlers called for every player, in registration order
+    private final Map<Class<? extends Event>, List<GameEventHandler<?>>> commonHandlers = new HashMap<>();
+    // Handlers only called for players in a game of the given mode
+    private final Map<GameMode, Map<Class<? extends Event>, List<GameEventHandler<?>>>> modeHandlers = new EnumMap<>(GameMode.class);
+
+    public GameEventRouter(BeaconLabsBW plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Register a handler that is called for every player, in or out of a game
+     *
+     * @param eventType The routed event type
+     * @param handler The handler
+     * @param <E> The event type
+     */
+    public <E extends Event> void register(Class<E> eventType, GameEventHandler<E> handler) {
+        commonHandlers.computeIfAbsent(eventType, k -> new ArrayList<>()).add(handler);
+    }
+
+    /**
+     * Register a handler that is only called for players in a game of the given mode
+     *
+     * @param eventType The routed event type
+     * @param mode The game mode
+     * @param handler The handler
+     * @param <E> The event type
+     */
+    public <E extends Event> void register(Class<E> eventType, GameMode mode, GameEventHandler<E> handler) {
+        modeHandlers.computeIfAbsent(mode, k -> new HashMap<>())
+            .computeIfAbsent(eventType, k -> new ArrayList<>()).add(handler);
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onBlockBreak(BlockBreakEvent event) {
+        dispatch(BlockBreakEvent.class, event, event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onPlayerDeath(PlayerDeathEvent event) {
+        dispatch(PlayerDeathEvent.class, event, event.getEntity());
+    }
+
+    @EventHandler
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        dispatch(PlayerInteractEvent.class, event, event.getPlayer());
+    }
+
+    @EventHandler
+    public void onEntityDamage(EntityDamageEvent event) {
+        if (event.getEntity() instanceof Player player) {
+            dispatch(EntityDamageEvent.class, event, player);
+        }
+    }
+
+    private <E extends Event> void dispatch(Class<E> eventType, E event, Player player) {
+        // NPCs that look like players have no session
+        PlayerSession session = plugin.getGameManager().getSession(player);
+        if (session == null) return;
+
+        Game game = session.getGame();
+        call(commonHandlers.get(eventType), event, player, session, game);
+
+        if (game != null) {
+            Map<Class<? extends Event>, List<GameEventHandler<?>>> handlers = modeHandlers.get(game.getGameMode());
+            if (handlers != null) {
+                call(handlers.get(eventType), event, player, session, game);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E extends Event> void call(List<GameEventHandler<?>> handlers, E event, Player player,
+                                        PlayerSession session, Game game) {
+        if (handlers == null) return;
+        for (GameEventHandler<?> handler : handlers) {
+            // Handlers are stored by the event type they were registered for
+            ((GameEventHandler<E>) handler).handle(event, player, session, game);
+        }
+    }
+}
@@ -62,29 +62,6 @@ public class InventoryListener implements Listener {
         
         // Apply team upgrades again when closing the inventory
         // This ensures all upgrades are applied correctly when the player closes the menu
-        String team = game.getPlayerTeam(player);
-        if (team != null) {
-            applyTeamUpgrades(player, game);
-        }
-    }
-    
-    /**
-     * Apply team upgrades to a player
-     * 
-     * @param player The player
-     * @param game The game
-     */
-    private void applyTeamUpgrades(Player player, Game game) {
-        String teamName = game.getPlayerTeam(player);
-        if (teamName == null) return;
-        
-        for (org.bcnlab.beaconLabsBW.shop.TeamUpgrade.UpgradeType type : 
-             org.bcnlab.beaconLabsBW.shop.TeamUpgrade.UpgradeType.values()) {
-            
-            int level = plugin.getTeamUpgradeManager().getUpgradeLevel(teamName, type);
-            if (level > 0) {
-                game.applyTeamUpgrade(player, type, level);
-            }
-        }
+        game.applyTeamUpgrades(player);
     }
 }
@@ -7,8 +7,11 @@ import org.bcnlab.beaconLabsBW.arena.model.TeamData;
 import org.bcnlab.beaconLabsBW.game.Game;
 import org.bcnlab.beaconLabsBW.game.GameMode;
 import org.bcnlab.beaconLabsBW.game.GameState;
+import org.bcnlab.beaconLabsBW.game.GameTicker;
+import org.bcnlab.beaconLabsBW.game.PlayerSession;
 import org.bcnlab.beaconLabsBW.shop.ShopItem;
 import org.bcnlab.beaconLabsBW.utils.MessageUtils;
+import org.bcnlab.beaconLabsBW.utils.MaterialTraits;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -21,7 +24,6 @@ import java.util.UUID;
 import java.util.HashMap;
 import java.util.Map;
 import org.bukkit.event.EventHandler;
-import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
@@ -50,9 +52,22 @@ public class PlayerListener implements Listener {
     public PlayerListener(BeaconLabsBW plugin) {
         this.plugin = plugin;
     }
+    
+    /**
+     * Register the handlers of events that are shared with other listeners
+     * 
+     * @param router The event router
+     */
+    public void registerRoutes(GameEventRouter router) {
+        router.register(PlayerDeathEvent.class, this::onPlayerDeath);
+        router.register(PlayerInteractEvent.class, this::onPlayerInteract);
+        router.register(EntityDamageEvent.class, this::onEntityDamage);
+        router.register(BlockBreakEvent.class, this::onBlockBreak);
+    }
       @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        plugin.getGameManager().createSession(player);
         
         // Always try to join the player to a game automatically after a short delay
         plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
@@ -69,8 +84,9 @@ public class PlayerListener implements Listener {
         Player player = event.getPlayer();
         
         // Clear any active cooldown display
-        if (plugin.getGameManager().getPlayerGame(player) != null && 
-            plugin.getGameManager().getPlayerGame(player).getGameMode() == GameMode.ULTIMATES) {
+        PlayerSession session = plugin.getGameManager().getSession(player);
+        Game game = session != null ? session.getGame() : null;
+        if (game != null && game.getGameMode() == GameMode.ULTIMATES) {
             plugin.getUltimatesManager().clearCooldownDisplay(player);
         }
         
@@ -81,13 +97,14 @@ public class PlayerListener implements Listener {
         if (plugin.getArenaManager().isEditing(player)) {
             plugin.getArenaManager().stopEditing(player);
         }
+        
+        // A player waiting for an instance to be copied no longer takes up a slot in it
+        plugin.getGameManager().getMatchmaker().removeQueued(player.getUniqueId());
+        plugin.getGameManager().removeSession(player);
     }
-      @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
+    private void onPlayerDeath(PlayerDeathEvent event, Player player, PlayerSession session, Game game) {
         Player killer = player.getKiller();
         
-        Game game = plugin.getGameManager().getPlayerGame(player);
         if (game != null) {
             // Clear any active cooldown display
             if (game.getGameMode() == GameMode.ULTIMATES) {
@@ -103,13 +120,14 @@ public class PlayerListener implements Listener {
             // Handle game-specific death logic
             game.handlePlayerDeath(player, killer);
             
-            // Skip death screen
+            // Skip death screen, not owned by the game so it still happens if the game ends meanwhile
             plugin.getServer().getScheduler().runTaskLater(plugin, () -> player.spigot().respawn(), 2L);
         }
     }    @EventHandler
     public void onPlayerRespawn(PlayerRespawnEvent event) {
         Player player = event.getPlayer();
-        Game game = plugin.getGameManager().getPlayerGame(player);
+        PlayerSession session = plugin.getGameManager().getSession(player);
+        Game game = session.getGame();
         
         if (game != null) {
             // Clear any active cooldown display on respawn
@@ -117,7 +135,7 @@ public class PlayerListener implements Listener {
                 plugin.getUltimatesManager().clearCooldownDisplay(player);
             }
             
-            if (game.isSpectator(player)) {
+            if (session.isSpectator()) {
                 // Respawn at spectator spawn
                 SerializableLocation spectatorLoc = game.getArena().getSpectatorSpawn();
                 if (spectatorLoc != null) {
@@ -128,7 +146,7 @@ public class PlayerListener implements Listener {
                 }
             } else {
                 // Respawn at team spawn if bed exists
-                String team = game.getPlayerTeam(player);
+                String team = session.getTeam();
                 if (team != null) {
                     TeamData teamData = game.getArena().getTeam(team);
                     if (teamData != null && teamData.getSpawnLocation() != null) {
@@ -140,22 +158,19 @@ public class PlayerListener implements Listener {
                 }
                 
                 // Schedule a task to fix armor durability after respawn
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                game.getTicker().schedule(5L, () -> {
                     org.bcnlab.beaconLabsBW.utils.ArmorHandler.fixPlayerArmor(player);
-                }, 5L); // Delay of 5 ticks (0.25 seconds) to ensure armor is equipped first
+                }); // Delay of 5 ticks (0.25 seconds) to ensure armor is equipped first
             }
         }
     }
-      @EventHandler
-    public void onPlayerInteract(PlayerInteractEvent event) {
-        Player player = event.getPlayer();
+    private void onPlayerInteract(PlayerInteractEvent event, Player player, PlayerSession session, Game game) {
         Block block = event.getClickedBlock();
         Action action = event.getAction();
         ItemStack item = event.getItem();
         
         // Check for interacting with beds 
-        if (block != null && block.getType().name().contains("BED")) {
-            Game game = plugin.getGameManager().getPlayerGame(player);
+        if (block != null && MaterialTraits.isBed(block.getType())) {
             if (game != null && game.getState() == GameState.RUNNING) {
                 // Prevent setting spawn point with right-click
                 if (action == Action.RIGHT_CLICK_BLOCK) {
@@ -197,7 +212,6 @@ public class PlayerListener implements Listener {
                     event.setCancelled(true); // Cancel default spawn egg behavior
                     
                     // Check if player is in a game
-                    Game game = plugin.getGameManager().getPlayerGame(player);
                     if (game != null && game.getState() == GameState.RUNNING) {
                         plugin.getLogger().info("[DreamDefender] Player is in running game " + game.getGameId() + ". Consuming item.");
                         // Consume the spawn egg
@@ -211,7 +225,7 @@ public class PlayerListener implements Listener {
                         plugin.getLogger().info("[DreamDefender] Attempting to spawn Iron Golem at: " + spawnLoc);
                         // Spawn an Iron Golem
                         try {
-                            IronGolem golem = (IronGolem) player.getWorld().spawn(spawnLoc, IronGolem.class);
+                            IronGolem golem = game.getResources().track(player.getWorld().spawn(spawnLoc, IronGolem.class));
                             plugin.getLogger().info("[DreamDefender] Golem spawned successfully! Entity ID: " + golem.getEntityId());
                             golem.setCustomNameVisible(true);
                             golem.setPersistent(false); // Don't persist after world unload
@@ -225,18 +239,18 @@ public class PlayerListener implements Listener {
                                 golem.setCustomName(chatColor + "Dream Defender" + ChatColor.GRAY + " [2:00]");
                                 golem.setMetadata("team", new FixedMetadataValue(plugin, team));
                                 golem.setMetadata("owner", new FixedMetadataValue(plugin, player.getUniqueId().toString()));
-                                golem.setMetadata("game_id", new FixedMetadataValue(plugin, game.getGameId()));
                                 golem.setMetadata("spawn_time", new FixedMetadataValue(plugin, System.currentTimeMillis()));
                             } else {
                                 plugin.getLogger().warning("[DreamDefender] Player " + player.getName() + " has no team, cannot set golem team metadata.");
                             }
                             
-                            // Start timer task for despawning after 2 minutes
+                            // Start timer for despawning after 2 minutes, it ends with the game
                             final int[] timeLeft = {120}; // 120 seconds = 2 minutes
-                            final int taskId = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+                            final GameTicker.Action[] timer = new GameTicker.Action[1];
+                            timer[0] = game.getTicker().scheduleRepeating(20L, 20L, () -> {
                                 // Check if golem still exists
                                 if (!golem.isValid() || golem.isDead()) {
-                                    Bukkit.getScheduler().cancelTask(golem.getMetadata("timer_task").get(0).asInt());
+                                    timer[0].cancel();
                                     return;
                                 }
                                 
@@ -245,7 +259,7 @@ public class PlayerListener implements Listener {
                                 if (timeLeft[0] <= 0) {
                                     // Time's up, remove the golem
                                     golem.remove();
-                                    Bukkit.getScheduler().cancelTask(golem.getMetadata("timer_task").get(0).asInt());
+                                    timer[0].cancel();
                                     return;
                                 }
                                 
@@ -258,10 +272,7 @@ public class PlayerListener implements Listener {
                                 ChatColor chatColor = MessageUtils.getChatColorFromString(teamColor);
                                 golem.setCustomName(chatColor + "Dream Defender" + ChatColor.GRAY + " [" + timeString + "]");
                                 
-                            }, 20L, 20L).getTaskId(); // Run every second
-                            
-                            // Store task ID for cleanup
-                            golem.setMetadata("timer_task", new FixedMetadataValue(plugin, taskId));
+                            }); // Run every second
                             
                             // Play spawn sound
                             player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_IRON_GOLEM_REPAIR, 1.0f, 1.0f);
@@ -285,7 +296,6 @@ public class PlayerListener implements Listener {
             
             // Check if it's the specific shop item (optional, could check lore/name)
             if (item.hasItemMeta() && item.getItemMeta().hasDisplayName() && item.getItemMeta().getDisplayName().contains("Fireball")) {
-                Game game = plugin.getGameManager().getPlayerGame(player);
                 if (game != null && game.getState() == GameState.RUNNING) {
                     event.setCancelled(true); // Prevent default Fire Charge behavior
 
@@ -312,7 +322,6 @@ public class PlayerListener implements Listener {
         if (action == Action.RIGHT_CLICK_BLOCK || action == Action.RIGHT_CLICK_AIR) {
             if (item != null && item.getType() == Material.EMERALD) {
                 // Check if player is in a game
-                Game game = plugin.getGameManager().getPlayerGame(player);
                 if (game != null && game.getState() == GameState.RUNNING) {
                     // Open the shop
                     plugin.getShopManager().openShop(player);
@@ -369,7 +378,7 @@ public class PlayerListener implements Listener {
      * @param bedBlock Any part of the bed
      */
     private void destroyBedParts(Block bedBlock) {
-        if (bedBlock.getType().toString().contains("BED")) {
+        if (MaterialTraits.isBed(bedBlock.getType())) {
             // Get the block data to find connected bed parts
             org.bukkit.block.data.type.Bed bed = (org.bukkit.block.data.type.Bed) bedBlock.getBlockData();
             
@@ -458,10 +467,7 @@ public class PlayerListener implements Listener {
     }
     
     private boolean isArmor(Material material) {
-        return material.name().contains("HELMET") ||
-               material.name().contains("CHESTPLATE") ||
-               material.name().contains("LEGGINGS") ||
-               material.name().contains("BOOTS");
+        return MaterialTraits.isArmor(material);
     }
     
     /**
@@ -475,37 +481,32 @@ public class PlayerListener implements Listener {
         
         Material type = item.getType();
         return type == Material.SHEARS || 
-               type.name().contains("PICKAXE") ||
-               type.name().contains("AXE") ||
+               MaterialTraits.isPickaxe(type) ||
+               MaterialTraits.isAxe(type) ||
                type == Material.WOODEN_SWORD ||
                type == Material.STONE_SWORD ||
                type == Material.IRON_SWORD ||
                type == Material.DIAMOND_SWORD;
     }
     
-    @EventHandler
-    public void onEntityDamage(EntityDamageEvent event) {
-        if (event.getEntity() instanceof Player player) {
-            Game game = plugin.getGameManager().getPlayerGame(player);
+    private void onEntityDamage(EntityDamageEvent event, Player player, PlayerSession session, Game game) {
+        if (game != null) {
+            // Disable damage in lobby
+            if (game.getState() != GameState.RUNNING) {
+                event.setCancelled(true);
+                return;
+            }
             
-            if (game != null) {
-                // Disable damage in lobby
-                if (game.getState() != GameState.RUNNING) {
-                    event.setCancelled(true);
-                    return;
-                }
-                
-                // Prevent spectators from taking damage
-                if (game.isSpectator(player)) {
-                    event.setCancelled(true);
-                    return;
-                }
-                
-                // Prevent fall damage from excessive heights
-                if (event.getCause() == EntityDamageEvent.DamageCause.FALL && 
-                    event.getDamage() > 10) {
-                    event.setDamage(10); // Cap fall damage
-                }
+            // Prevent spectators from taking damage
+            if (session.isSpectator()) {
+                event.setCancelled(true);
+                return;
+            }
+            
+            // Prevent fall damage from excessive heights
+            if (event.getCause() == EntityDamageEvent.DamageCause.FALL && 
+                event.getDamage() > 10) {
+                event.setDamage(10); // Cap fall damage
             }
         }
     }
@@ -513,9 +514,14 @@ public class PlayerListener implements Listener {
     @EventHandler
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
         if (event.getDamager() instanceof Player attacker && event.getEntity() instanceof Player defender) {
-            Game game = plugin.getGameManager().getPlayerGame(attacker);
+            PlayerSession attackerSession = plugin.getGameManager().getSession(attacker);
+            PlayerSession defenderSession = plugin.getGameManager().getSession(defender);
+            if (attackerSession == null || defenderSession == null) {
+                return;
+            }
+            Game game = attackerSession.getGame();
             
-            if (game != null && game == plugin.getGameManager().getPlayerGame(defender)) {
+            if (game != null && defenderSession.isIn(game)) {
                 // Disable PvP in non-running state
                 if (game.getState() != GameState.RUNNING) {
                     event.setCancelled(true);
@@ -523,8 +529,8 @@ public class PlayerListener implements Listener {
                 }
                 
                 // Disable damage to teammates
-                String attackerTeam = game.getPlayerTeam(attacker);
-                String defenderTeam = game.getPlayerTeam(defender);
+                String attackerTeam = attackerSession.getTeam();
+                String defenderTeam = defenderSession.getTeam();
                 
                 if (attackerTeam != null && attackerTeam.equals(defenderTeam)) {
                     event.setCancelled(true);
@@ -532,7 +538,7 @@ public class PlayerListener implements Listener {
                 }
                 
                 // Spectators can't attack or be attacked
-                if (game.isSpectator(attacker) || game.isSpectator(defender)) {
+                if (attackerSession.isSpectator() || defenderSession.isSpectator()) {
                     event.setCancelled(true);
                 }
             }
@@ -640,14 +646,11 @@ public class PlayerListener implements Listener {
         }
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST) // High priority to ensure we handle it
-    public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
+    private void onBlockBreak(BlockBreakEvent event, Player player, PlayerSession session, Game game) {
         Block block = event.getBlock();
 
         // Check if it's a bed
-        if (block.getType().name().contains("BED")) {
-            Game game = plugin.getGameManager().getPlayerGame(player);
+        if (MaterialTraits.isBed(block.getType())) {
             if (game != null && game.getState() == GameState.RUNNING) {
                 // Prevent bed item drop
                 event.setDropItems(false);
@@ -683,9 +686,9 @@ public class PlayerListener implements Listener {
         if (game != null && game.getState() == GameState.RUNNING) {
             Material type = item.getType();
             // Check if it's a sword, pickaxe, or axe
-            if (type.name().contains("SWORD") || 
-                type.name().contains("PICKAXE") || 
-                type.name().contains("AXE") ||
+            if (MaterialTraits.isSword(type) || 
+                MaterialTraits.isPickaxe(type) || 
+                MaterialTraits.isAxe(type) ||
                 type == Material.SHEARS || // Also make shears unbreakable
                 type == Material.BOW || // And bows
                 type == Material.SHIELD) { // And shields
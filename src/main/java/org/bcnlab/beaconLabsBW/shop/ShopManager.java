@@ -4,11 +4,13 @@ import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bcnlab.beaconLabsBW.game.Game;
 import org.bcnlab.beaconLabsBW.game.GameMode;
 import org.bcnlab.beaconLabsBW.utils.MessageUtils;
+import org.bcnlab.beaconLabsBW.utils.MaterialTraits;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemFlag;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -394,8 +396,8 @@ public class ShopManager {
         }
         
         // --- New Armor Check --- 
-        if (isArmor(item.getMaterial())) {
-            int purchaseTier = getArmorTierLevel(item.getMaterial());
+        if (MaterialTraits.isArmor(item.getMaterial())) {
+            int purchaseTier = MaterialTraits.getArmorTier(item.getMaterial());
             int playerTier = getPlayerArmorTier(player);
             if (purchaseTier <= playerTier) {
                 MessageUtils.sendMessage(player, plugin.getPrefix() + "&cYou already have this tier of armor or better!");
@@ -489,7 +491,7 @@ public class ShopManager {
         
         // Special handling for sword upgrades - remove existing swords (if not upgradable swords)
         // If swords become upgradable, this logic needs to adapt like pickaxes/axes.
-        if (item.getMaterial().name().contains("SWORD") && !item.getName().contains("Upgrade")) { // Assuming no "Sword Upgrade" items for now
+        if (MaterialTraits.isSword(item.getMaterial()) && !item.getName().contains("Upgrade")) { // Assuming no "Sword Upgrade" items for now
             removeExistingSwords(player);
         }
 
@@ -514,7 +516,7 @@ public class ShopManager {
         // Apply item customizations
         customizeShopItem(itemStack, item);
           // Special handling for armor
-        if (isArmor(item.getMaterial())) {
+        if (MaterialTraits.isArmor(item.getMaterial())) {
             // Get armorType for armor differentiation
             String armorType = item.getMaterial().name();
             
@@ -567,7 +569,7 @@ public class ShopManager {
      */
     private void removeExistingSwords(Player player) {
         for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && item.getType().name().contains("SWORD")) {
+            if (item != null && MaterialTraits.isSword(item.getType())) {
                 player.getInventory().remove(item);
             }
         }
@@ -631,10 +633,10 @@ public class ShopManager {
             
             // Make tools and weapons unbreakable
             Material type = itemStack.getType();
-            if (type.name().contains("SWORD") || 
-                type.name().contains("AXE") || 
-                type.name().contains("PICKAXE") ||
-                type.name().contains("SHOVEL") || 
+            if (MaterialTraits.isSword(type) || 
+                MaterialTraits.isAxe(type) || 
+                MaterialTraits.isPickaxe(type) ||
+                MaterialTraits.isShovel(type) || 
                 type == Material.SHEARS ||
                 type == Material.BOW ||
                 type == Material.CROSSBOW ||
@@ -715,18 +717,6 @@ public class ShopManager {
         };
     }
     
-    /**
-     * Check if a material is armor
-     * 
-     * @param material The material
-     * @return true if armor, false otherwise
-     */
-    private boolean isArmor(Material material) {
-        return material.name().contains("HELMET") ||
-               material.name().contains("CHESTPLATE") ||
-               material.name().contains("LEGGINGS") ||
-               material.name().contains("BOOTS");
-    }
       /**
      * Equip armor on a player
      * 
@@ -734,22 +724,23 @@ public class ShopManager {
      * @param armor The armor item
      */
     private void equipArmor(Player player, ItemStack armor) {
-        Material type = armor.getType();
+        EquipmentSlot slot = MaterialTraits.getArmorSlot(armor.getType());
+        if (slot == null) return;
         
         // For armor upgrades, only replace leggings and boots, not helmet or chestplate
         // If the player doesn't have a helmet/chestplate yet, we'll equip those too
-        if (type.name().contains("HELMET")) {
-            if (player.getInventory().getHelmet() == null) {
-                player.getInventory().setHelmet(armor);
+        switch (slot) {
+            case HEAD -> {
+                if (player.getInventory().getHelmet() == null) {
+                    player.getInventory().setHelmet(armor);
+                }
             }
-        } else if (type.name().contains("CHESTPLATE")) {
-            if (player.getInventory().getChestplate() == null) {
-                player.getInventory().setChestplate(armor);
+            case CHEST -> {
+                if (player.getInventory().getChestplate() == null) {
+                    player.getInventory().setChestplate(armor);
+                }
             }
-        } else if (type.name().contains("LEGGINGS")) {
-            player.getInventory().setLeggings(armor);
-        } else if (type.name().contains("BOOTS")) {
-            player.getInventory().setBoots(armor);
+            default -> player.getInventory().setItem(slot, armor);
         }
     }
     
@@ -951,8 +942,8 @@ public class ShopManager {
         Material currentMaterial = null;
         ItemStack[] inventory = player.getInventory().getContents();
         for (ItemStack item : inventory) {
-            if (item != null && item.getType().name().contains(toolType)) {
-                if (currentMaterial == null || getTierLevel(item.getType()) > getTierLevel(currentMaterial)) {
+            if (item != null && (toolType.equals("PICKAXE") ? MaterialTraits.isPickaxe(item.getType()) : MaterialTraits.isAxe(item.getType()))) {
+                if (currentMaterial == null || MaterialTraits.getToolTier(item.getType()) > MaterialTraits.getToolTier(currentMaterial)) {
                     currentMaterial = item.getType();
                 }
             }
@@ -983,28 +974,11 @@ public class ShopManager {
         return result;
     }
 
-    private int getTierLevel(Material material) {
-        if (material.name().contains("WOODEN")) return 1;
-        if (material.name().contains("STONE")) return 2;
-        if (material.name().contains("IRON")) return 3;
-        if (material.name().contains("DIAMOND")) return 4;
-        return 0; // Default for non-tiered or unknown
-    }
-
-    private int getArmorTierLevel(Material material) {
-        if (material == null) return 0;
-        String name = material.name();
-        if (name.startsWith("LEATHER_")) return 1; // Team armor base
-        if (name.startsWith("CHAINMAIL_")) return 2;
-        if (name.startsWith("IRON_")) return 3;
-        if (name.startsWith("DIAMOND_")) return 4;
-        return 0; // Not armor or unknown
-    }
 
     private int getPlayerArmorTier(Player player) {
         int maxTier = 0;
         for (ItemStack armorPiece : player.getInventory().getArmorContents()) {
-            maxTier = Math.max(maxTier, getArmorTierLevel(armorPiece != null ? armorPiece.getType() : null));
+            maxTier = Math.max(maxTier, MaterialTraits.getArmorTier(armorPiece != null ? armorPiece.getType() : null));
         }
         return maxTier;
     }
@@ -3,6 +3,7 @@ package org.bcnlab.beaconLabsBW.shop;
 import org.bcnlab.beaconLabsBW.BeaconLabsBW;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
@@ -13,6 +14,8 @@ import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
 import org.bukkit.metadata.MetadataValue;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
 import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 
@@ -24,6 +27,9 @@ import java.util.UUID;
  */
 public class ShopVillager implements Listener {
     
+    // Persistent data key marking shop villagers, value is the villager type
+    private static final String SHOP_KEY = "shop_villager";
+    
     private final BeaconLabsBW plugin;
     private final String name;
     private final VillagerType type;
@@ -68,6 +74,18 @@ public class ShopVillager implements Listener {
         spawnVillager();
     }
     
+    /**
+     * Check if an entity was spawned as a shop villager, also for villagers from before a restart
+     * 
+     * @param plugin The plugin instance
+     * @param entity The entity to check
+     * @return True if the entity carries the shop villager tag
+     */
+    public static boolean isShopVillager(Plugin plugin, Entity entity) {
+        return entity instanceof Villager
+            && entity.getPersistentDataContainer().has(new NamespacedKey(plugin, SHOP_KEY), PersistentDataType.STRING);
+    }
+    
     /**
      * Get the UUID of the underlying Villager entity.
      *
@@ -93,17 +111,18 @@ public class ShopVillager implements Listener {
         World world = location.getWorld();
         if (world == null) return;
         
-        // Ensure the chunk is loaded before attempting to spawn
+        // Callers load the chunk beforehand (spread over ticks), never load it inline here
         if (!world.isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
-            world.loadChunk(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+            plugin.getLogger().warning("Not spawning " + type + " villager, chunk at " + location.getBlockX() + ", " + location.getBlockZ() + " is not loaded");
+            return;
         }
         
         try {
             // Create villager entity with custom metadata
             this.entity = (Villager) world.spawnEntity(location, EntityType.VILLAGER);
             
-            // Add metadata to identify this as a custom shop villager
-            this.entity.setMetadata("beaconlabs_shop", new org.bukkit.metadata.FixedMetadataValue(plugin, type.name()));
+            // Tag it as a shop villager, the tag survives restarts so leftovers can be recognised
+            this.entity.getPersistentDataContainer().set(new NamespacedKey(plugin, SHOP_KEY), PersistentDataType.STRING, type.name());
         } catch (Exception e) {
             plugin.getLogger().warning("Error spawning shop villager: " + e.getMessage());
             return;
@@ -0,0 +1,42 @@
+package org.bcnlab.beaconLabsBW.shop;
+
+/**
+ * The upgrade levels one team has bought in one game.
+ * Levels are stored in an array indexed by upgrade type, 0 means not purchased.
+ */
+public class TeamUpgradeLevels {
+
+    private static final TeamUpgrade.UpgradeType[] TYPES = TeamUpgrade.UpgradeType.values();
+
+    private final int[] levels = new int[TYPES.length];
+
+    /**
+     * Get the level of an upgrade
+     *
+     * @param type The upgrade type
+     * @return The level, 0 if not purchased
+     */
+    public int get(TeamUpgrade.UpgradeType type) {
+        return levels[type.ordinal()];
+    }
+
+    /**
+     * Set the level of an upgrade
+     *
+     * @param type The upgrade type
+     * @param level The new level
+     */
+    public void set(TeamUpgrade.UpgradeType type, int level) {
+        levels[type.ordinal()] = level;
+    }
+
+    /**
+     * @return true if the team has not purchased any upgrade
+     */
+    public boolean isEmpty() {
+        for (int level : levels) {
+            if (level > 0) return false;
+        }
+        return true;
+    }
+}
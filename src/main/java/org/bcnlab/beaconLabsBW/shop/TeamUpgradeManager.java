@@ -13,7 +13,6 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages team upgrades in BedWars
@@ -23,9 +22,6 @@ public class TeamUpgradeManager {
     private final BeaconLabsBW plugin;
     private final List<TeamUpgrade> availableUpgrades = new ArrayList<>();
     
-    // Track team upgrade levels - team name -> upgrade type -> level
-    private final Map<String, Map<TeamUpgrade.UpgradeType, Integer>> teamUpgrades = new ConcurrentHashMap<>();
-    
     /**
      * Create a new TeamUpgradeManager
      * 
@@ -118,13 +114,12 @@ public class TeamUpgradeManager {
         );
         
         // Get team upgrade levels
-        Map<TeamUpgrade.UpgradeType, Integer> upgradeLevels = teamUpgrades
-            .computeIfAbsent(teamName, k -> new ConcurrentHashMap<>());
+        TeamUpgradeLevels upgradeLevels = game.getTeamUpgrades(teamName);
         
         // Add upgrades
         int slot = 10;
         for (TeamUpgrade upgrade : availableUpgrades) {
-            inventory.setItem(slot++, createUpgradeItem(upgrade, upgradeLevels.getOrDefault(upgrade.getType(), 0)));
+            inventory.setItem(slot++, createUpgradeItem(upgrade, upgradeLevels.get(upgrade.getType())));
         }
         
         // Add separator
@@ -157,14 +152,13 @@ public class TeamUpgradeManager {
             return;
         }
         
-        // Initialize team upgrades map if not exists
-        teamUpgrades.computeIfAbsent(team, k -> new ConcurrentHashMap<>());
+        TeamUpgradeLevels upgradeLevels = game.getTeamUpgrades(team);
         
         // Add upgrade items to the menu
         int slot = 10;
         for (TeamUpgrade upgrade : availableUpgrades) {
             // Get current level (0 = not purchased yet)
-            int currentLevel = teamUpgrades.get(team).getOrDefault(upgrade.getType(), 0);
+            int currentLevel = upgradeLevels.get(upgrade.getType());
             boolean maxLevel = currentLevel >= upgrade.getCosts().length;
             
             // Create the item to display
@@ -193,23 +187,17 @@ public class TeamUpgradeManager {
             lore.add("");
             lore.add(ChatColor.YELLOW + "Current Upgrades:");
             
-            // Add info about each upgrade
-            for (Map.Entry<TeamUpgrade.UpgradeType, Integer> entry : teamUpgrades.get(team).entrySet()) {
-                TeamUpgrade.UpgradeType type = entry.getKey();
-                int level = entry.getValue();
-                
-                // Find the upgrade
-                for (TeamUpgrade upgrade : availableUpgrades) {
-                    if (upgrade.getType() == type) {
-                        lore.add(ChatColor.GRAY + "- " + upgrade.getName() + " " + 
-                            ChatColor.AQUA + "Level " + level);
-                        break;
-                    }
+            // Add info about each purchased upgrade
+            for (TeamUpgrade upgrade : availableUpgrades) {
+                int level = upgradeLevels.get(upgrade.getType());
+                if (level > 0) {
+                    lore.add(ChatColor.GRAY + "- " + upgrade.getName() + " " + 
+                        ChatColor.AQUA + "Level " + level);
                 }
             }
             
             // If no upgrades yet
-            if (teamUpgrades.get(team).isEmpty()) {
+            if (upgradeLevels.isEmpty()) {
                 lore.add(ChatColor.GRAY + "- None");
             }
             
@@ -392,9 +380,8 @@ public class TeamUpgradeManager {
         TeamUpgrade upgrade = availableUpgrades.get(upgradeIndex);
         
         // Get current level
-        Map<TeamUpgrade.UpgradeType, Integer> upgradeLevels = teamUpgrades
-            .computeIfAbsent(teamName, k -> new ConcurrentHashMap<>());
-        int currentLevel = upgradeLevels.getOrDefault(upgrade.getType(), 0);
+        TeamUpgradeLevels upgradeLevels = game.getTeamUpgrades(teamName);
+        int currentLevel = upgradeLevels.get(upgrade.getType());
         
         // Check if already maxed
         int nextLevel = currentLevel + 1;
@@ -413,7 +400,7 @@ public class TeamUpgradeManager {
         
         // Remove diamonds and apply upgrade
         removeDiamonds(player, cost);
-        upgradeLevels.put(upgrade.getType(), nextLevel);
+        upgradeLevels.set(upgrade.getType(), nextLevel);
         
         // Announce upgrade
         game.broadcastTeamMessage(teamName, "&a&lTEAM UPGRADE! &f" + player.getName() + 
@@ -441,6 +428,11 @@ public class TeamUpgradeManager {
      * @param level The new level
      */
     private void applyUpgradeEffect(Game game, String teamName, TeamUpgrade.UpgradeType type, int level) {
+        // Forge changes the rate of the team's running generators
+        if (type == TeamUpgrade.UpgradeType.FORGE) {
+            game.onForgeUpgraded(teamName, level);
+        }
+        
         // Apply effects based on upgrade type
         Set<UUID> teamMembers = game.getTeamMembers(teamName);
         if (teamMembers == null) return;
@@ -502,27 +494,6 @@ public class TeamUpgradeManager {
     }
     
     /**
-     * Get the upgrade level for a team
-     * 
-     * @param teamName The team name
-     * @param type Upgrade type
-     * @return Current level
-     */
-    public int getUpgradeLevel(String teamName, TeamUpgrade.UpgradeType type) {
-        if (teamName == null) return 0;
-        
-        Map<TeamUpgrade.UpgradeType, Integer> upgrades = teamUpgrades.get(teamName);
-        if (upgrades == null) return 0;
-        
-        return upgrades.getOrDefault(type, 0);
-    }
-    
-    /**
-     * Reset all team upgrades (for new game)
-     */
-    public void resetUpgrades() {
-        teamUpgrades.clear();
-    }    /**
      * Add a glowing effect to an ItemMeta
      * 
      * @param meta The ItemMeta to add glow to
@@ -80,6 +80,11 @@ public class VillagerManager implements Listener {
         if (entityUUID != null && newVillager.getEntity() != null && newVillager.getEntity().isValid()) {
             shopVillagersByUUID.put(entityUUID, newVillager);
             villagerArenaMap.put(entityUUID, arena.getName());
+            // A running game owns the villagers of its arena, they are removed together with it
+            Game game = plugin.getGameManager().getActiveGames().get(arena.getName().toLowerCase());
+            if (game != null) {
+                game.getResources().track(newVillager.getEntity());
+            }
             plugin.getLogger().info("Successfully spawned and cached villager: " + entityUUID);
             return newVillager;
         } else {
@@ -377,10 +382,11 @@ public class VillagerManager implements Listener {
     /**
      * Spawn arena villagers with a delay to ensure chunks are loaded
      * 
-     * @param arena The arena to spawn villagers for
+     * @param game The game to spawn the arena villagers for
      */
-    public void spawnArenaVillagersWithDelay(Arena arena) {
-        if (arena == null) return;
+    public void spawnArenaVillagersWithDelay(Game game) {
+        if (game == null) return;
+        Arena arena = game.getArena();
         
         // Remove existing villagers first
         removeArenaVillagers(arena.getName());
@@ -396,24 +402,29 @@ public class VillagerManager implements Listener {
         if (arena.getWorldName() != null) {
             final org.bukkit.World world = Bukkit.getWorld(arena.getWorldName());
             if (world != null) {
-                // Schedule the villager spawning with a delay
-                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                    for (ShopVillagerData villagerData : villagersMap.values()) {
-                        if (villagerData.getLocation() != null) {
-                            // Pre-load the chunk where villager will spawn
-                            Location loc = villagerData.getLocation().toBukkitLocation();
-                            if (loc != null) {
-                                world.loadChunk(loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
-                                
-                                // Spawn after an additional small delay
-                                Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                                    spawnVillagerFromData(villagerData, arena);
-                                }, 5L); // 5 tick delay (0.25 seconds)
-                            }
+                // Schedule the villager spawning with a delay, one villager chunk per tick
+                long delay = 20L; // 1 second delay
+                for (ShopVillagerData villagerData : villagersMap.values()) {
+                    if (villagerData.getLocation() == null) continue;
+                    
+                    // Owned by the game, a game that ends early doesn't leave villagers behind
+                    game.getResources().track(Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                        Location loc = villagerData.getLocation().toBukkitLocation();
+                        if (loc == null) return;
+                        
+                        int chunkX = loc.getBlockX() >> 4;
+                        int chunkZ = loc.getBlockZ() >> 4;
+                        if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                            // Load in this tick, spawn in the next one
+                            world.getChunkAt(chunkX, chunkZ);
+                            game.getResources().track(Bukkit.getScheduler().runTaskLater(plugin, () -> spawnVillagerFromData(villagerData, arena), 1L));
+                        } else {
+                            spawnVillagerFromData(villagerData, arena);
                         }
-                    }
-                    plugin.getLogger().info("Spawned shop villagers for arena " + arena.getName());
-                }, 20L); // 1 second delay
+                    }, delay));
+                    delay += 2L;
+                }
+                plugin.getLogger().info("Scheduled " + villagersMap.size() + " shop villagers for arena " + arena.getName());
             }
         }
     }
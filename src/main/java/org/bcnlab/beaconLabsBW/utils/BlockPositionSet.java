@@ -0,0 +1,232 @@
+package org.bcnlab.beaconLabsBW.utils;
+
+import org.bukkit.block.Block;
+
+import java.util.Arrays;
+
+/**
+ * A primitive set of block positions packed into longs.
+ * Uses open addressing with linear probing over a dense key array, so lookups,
+ * inserts and removals are O(1) and iteration only touches stored positions.
+ */
+public class BlockPositionSet {
+
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // Dense storage of packed positions, in insertion order (with swap-on-remove)
+    private long[] keys;
+    // Hash table of indices into keys, offset by one so that 0 marks an empty slot
+    private int[] table;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public BlockPositionSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new set sized for the given number of positions
+     *
+     * @param expectedSize Expected number of positions
+     */
+    public BlockPositionSet(int expectedSize) {
+        int tableSize = tableSizeFor(Math.max(expectedSize, 16));
+        this.table = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.keys = new long[Math.max(expectedSize, 16)];
+        this.resizeThreshold = (int) (tableSize * LOAD_FACTOR);
+    }
+
+    /**
+     * Pack block coordinates into a single long.
+     * Layout: 26 bits x, 26 bits z, 12 bits y (same as vanilla block positions).
+     *
+     * @param x Block x
+     * @param y Block y
+     * @param z Block z
+     * @return The packed position
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    /**
+     * Pack the coordinates of a block into a single long
+     *
+     * @param block The block
+     * @return The packed position
+     */
+    public static long pack(Block block) {
+        return pack(block.getX(), block.getY(), block.getZ());
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    public static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    /**
+     * Add a position to the set
+     *
+     * @param packed The packed position
+     * @return true if the position was not already present
+     */
+    public boolean add(long packed) {
+        int slot = findSlot(packed);
+        if (table[slot] != 0) {
+            return false;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        keys[size] = packed;
+        table[slot] = ++size;
+
+        if (size > resizeThreshold) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Check if a position is in the set
+     *
+     * @param packed The packed position
+     * @return true if present
+     */
+    public boolean contains(long packed) {
+        return table[findSlot(packed)] != 0;
+    }
+
+    /**
+     * Remove a position from the set
+     *
+     * @param packed The packed position
+     * @return true if the position was present
+     */
+    public boolean remove(long packed) {
+        int slot = findSlot(packed);
+        int index = table[slot] - 1;
+        if (index < 0) {
+            return false;
+        }
+
+        // Keep keys dense by moving the last key into the freed index
+        int last = size - 1;
+        if (index != last) {
+            long moved = keys[last];
+            // Look up the moved key's slot before its index changes, the removed key is still in place
+            int movedSlot = findSlot(moved);
+            keys[index] = moved;
+            table[movedSlot] = index + 1;
+        }
+        size--;
+
+        deleteSlot(slot);
+        return true;
+    }
+
+    /**
+     * Get the packed position at a dense index (0 to size - 1).
+     * Indices are only stable while the set is not modified.
+     *
+     * @param index The index
+     * @return The packed position
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return keys[index];
+    }
+
+    /**
+     * Copy the stored positions into a new array
+     *
+     * @return The packed positions
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all positions, keeping the allocated capacity
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    /**
+     * Find the slot holding the key, or the empty slot where it would be inserted
+     */
+    private int findSlot(long packed) {
+        int slot = mix(packed) & mask;
+        while (true) {
+            int entry = table[slot];
+            if (entry == 0 || keys[entry - 1] == packed) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Backward-shift deletion so probe chains stay intact without tombstones
+     */
+    private void deleteSlot(int slot) {
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (table[next] != 0) {
+            int home = mix(keys[table[next] - 1]) & mask;
+            // Move the entry back if its home slot is not between the gap and its current slot
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[gap] = 0;
+    }
+
+    private void rehash(int newTableSize) {
+        table = new int[newTableSize];
+        mask = newTableSize - 1;
+        resizeThreshold = (int) (newTableSize * LOAD_FACTOR);
+        for (int i = 0; i < size; i++) {
+            int slot = mix(keys[i]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(expectedSize / LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
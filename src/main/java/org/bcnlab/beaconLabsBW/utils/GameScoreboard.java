@@ -9,10 +9,14 @@ import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.*;
 import org.bukkit.scoreboard.Criteria;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -22,8 +26,27 @@ public class GameScoreboard {
     
     private final BeaconLabsBW plugin;
     private final Game game;
-    private final Map<UUID, Scoreboard> playerScoreboards = new HashMap<>();
-    private BukkitTask updateTask;
+    private final Map<UUID, Sidebar> playerSidebars = new HashMap<>();
+    
+    // Changes since the last flush, flushed together on the next tick
+    private boolean active = false;
+    private boolean sharedDirty = false;
+    private final Set<UUID> dirtyPlayers = new HashSet<>();
+    private RenderModel model;
+    private BukkitTask flushTask;
+    
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yy");
+    private final Map<String, String> teamColorCodes = new HashMap<>();
+    private LocalDate cachedDay;
+    private String cachedDate;
+    
+    /**
+     * Lines shared by all viewers of one refresh
+     * 
+     * @param lobby Whether this is the lobby scoreboard (which has no per-player lines)
+     * @param sharedLines The shared lines, top to bottom
+     */
+    private record RenderModel(boolean lobby, List<String> sharedLines) {}
     
     public GameScoreboard(BeaconLabsBW plugin, Game game) {
         this.plugin = plugin;
@@ -41,18 +64,19 @@ public class GameScoreboard {
         Objective objective = scoreboard.registerNewObjective("bedwars", Criteria.DUMMY, 
                 ChatColor.YELLOW + "" + ChatColor.BOLD + "BED WARS");
         objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+        Sidebar sidebar = new Sidebar(scoreboard, objective);
         
         // Add entries
-        updateScoreboard(player, scoreboard, objective);
+        updateScoreboard(player, sidebar, buildRenderModel());
         
         // Apply scoreboard to player
         player.setScoreboard(scoreboard);
-        playerScoreboards.put(player.getUniqueId(), scoreboard);
+        playerSidebars.put(player.getUniqueId(), sidebar);
         
-        // If we're in the lobby and haven't started the task yet, start it now
+        // If we're in the lobby and haven't started refreshing yet, start it now
         if ((game.getState() == org.bcnlab.beaconLabsBW.game.GameState.WAITING || 
              game.getState() == org.bcnlab.beaconLabsBW.game.GameState.STARTING) && 
-            updateTask == null) {
+            !active) {
             startTask();
         }
     }
@@ -60,100 +84,96 @@ public class GameScoreboard {
      * Update the scoreboard for a player
      * 
      * @param player The player
-     * @param scoreboard The player's scoreboard
-     * @param objective The objective
+     * @param sidebar The player's sidebar
+     * @param model The shared lines of this refresh
      */
-    private void updateScoreboard(Player player, Scoreboard scoreboard, Objective objective) {
-        // Clear previous scores
-        for (String entry : scoreboard.getEntries()) {
-            scoreboard.resetScores(entry);
+    private void updateScoreboard(Player player, Sidebar sidebar, RenderModel model) {
+        // Only lines whose text changed are sent to the player
+        if (model.lobby()) {
+            sidebar.render(model.sharedLines());
+            return;
         }
         
+        List<String> lines = new ArrayList<>(model.sharedLines());
+        addPlayerLines(player, lines);
+        sidebar.render(lines);
+    }
+    
+    /**
+     * Build the lines that are the same for every viewer, once per refresh
+     * 
+     * @return The render model
+     */
+    private RenderModel buildRenderModel() {
+        List<String> lines = new ArrayList<>(Sidebar.MAX_LINES);
+        
         // Check game state and display appropriate scoreboard
-        if (game.getState() == org.bcnlab.beaconLabsBW.game.GameState.WAITING || 
-            game.getState() == org.bcnlab.beaconLabsBW.game.GameState.STARTING) {
+        boolean lobby = game.getState() == org.bcnlab.beaconLabsBW.game.GameState.WAITING || 
+            game.getState() == org.bcnlab.beaconLabsBW.game.GameState.STARTING;
+        if (lobby) {
             // Display the lobby scoreboard
-            updateLobbyScoreboard(player, scoreboard, objective);
+            buildLobbyLines(lines);
         } else {
             // Display the in-game scoreboard
-            updateInGameScoreboard(player, scoreboard, objective);
+            buildInGameLines(lines);
         }
+        return new RenderModel(lobby, List.copyOf(lines));
     }
     
     /**
-     * Update the lobby scoreboard for a player
+     * Build the lobby scoreboard lines
      * 
-     * @param player The player
-     * @param scoreboard The player's scoreboard
-     * @param objective The objective
+     * @param lines The list to add the lines to
      */
-    private void updateLobbyScoreboard(Player player, Scoreboard scoreboard, Objective objective) {
-        // Date display
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yy");
-        String date = dateFormat.format(new Date());
-        
-        // Add new scores
-        int score = 15;
-        
+    private void buildLobbyLines(List<String> lines) {
         // Header
-        objective.getScore(ChatColor.GRAY + date).setScore(score--);
-        objective.getScore(" ").setScore(score--);
+        lines.add(ChatColor.GRAY + getDate());
+        lines.add("");
         
         // Game info
-        objective.getScore(ChatColor.WHITE + "Map: " + ChatColor.GREEN + game.getArena().getName()).setScore(score--);
-        objective.getScore("  ").setScore(score--);
+        lines.add(ChatColor.WHITE + "Map: " + ChatColor.GREEN + game.getArena().getName());
+        lines.add("");
         
         // Player count
         int minPlayers = plugin.getConfigManager().getMinPlayers();
-        String playersText = ChatColor.WHITE + "Players: " + ChatColor.GREEN + game.getPlayers().size() + 
-                ChatColor.GRAY + "/" + game.getArena().getMaxPlayers();
-        objective.getScore(playersText).setScore(score--);
+        lines.add(ChatColor.WHITE + "Players: " + ChatColor.GREEN + game.getPlayers().size() + 
+                ChatColor.GRAY + "/" + game.getArena().getMaxPlayers());
         
         // Show countdown if game is starting
+        lines.add("");
         if (game.getState() == org.bcnlab.beaconLabsBW.game.GameState.STARTING) {
-            objective.getScore("   ").setScore(score--);
-            objective.getScore(ChatColor.WHITE + "Game starting in: " + 
-                    ChatColor.GREEN + game.getCountdown() + "s").setScore(score--);
+            lines.add(ChatColor.WHITE + "Game starting in: " + 
+                    ChatColor.GREEN + game.getCountdown() + "s");
         } else {
-            objective.getScore("   ").setScore(score--);
-            objective.getScore(ChatColor.WHITE + "Waiting for " + 
+            lines.add(ChatColor.WHITE + "Waiting for " + 
                     ChatColor.GREEN + Math.max(0, minPlayers - game.getPlayers().size()) + 
-                    ChatColor.WHITE + " more players").setScore(score--);
+                    ChatColor.WHITE + " more players");
         }
         
         // Show server IP
-        objective.getScore("    ").setScore(score--);
-        objective.getScore(ChatColor.YELLOW + "bcnlab.org").setScore(score);
+        lines.add("");
+        lines.add(ChatColor.YELLOW + "bcnlab.org");
     }
     
     /**
-     * Update the in-game scoreboard for a player
+     * Build the shared in-game scoreboard lines
      * 
-     * @param player The player
-     * @param scoreboard The player's scoreboard
-     * @param objective The objective
+     * @param lines The list to add the lines to
      */
-    private void updateInGameScoreboard(Player player, Scoreboard scoreboard, Objective objective) {
-        // Date display
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yy");
-        String date = dateFormat.format(new Date());
-        
-        // Add new scores
-        int score = 15;
-        
+    private void buildInGameLines(List<String> lines) {
         // Header
-        objective.getScore(ChatColor.GRAY + date).setScore(score--);
-        objective.getScore(" ").setScore(score--);
+        lines.add(ChatColor.GRAY + getDate());
+        lines.add("");
         
         // Game info
         int minutes = game.getGameTimer() / 60;
         int seconds = game.getGameTimer() % 60;
         String timeLeft = String.format("%02d:%02d", minutes, seconds);
-        objective.getScore(ChatColor.WHITE + "Time Left: " + ChatColor.GREEN + timeLeft).setScore(score--);
+        lines.add(ChatColor.WHITE + "Time Left: " + ChatColor.GREEN + timeLeft);
         
         // Team status
-        objective.getScore("  ").setScore(score--);
-        objective.getScore(ChatColor.WHITE + "Teams:").setScore(score--);
+        lines.add("");
+        lines.add(ChatColor.WHITE + "Teams:");
         
         // Show all teams and their status
         for (String teamName : game.getArena().getTeams().keySet()) {
@@ -169,23 +189,31 @@ public class GameScoreboard {
                 status = ChatColor.GRAY + "☠";
             }
             
-            objective.getScore(teamColorCode + teamName + ": " + status).setScore(score--);
+            lines.add(teamColorCode + teamName + ": " + status);
         }
         
-        objective.getScore("   ").setScore(score--);
-        
+        lines.add("");
+    }
+    
+    /**
+     * Add the lines that differ per player
+     * 
+     * @param player The player
+     * @param lines The list to add the lines to
+     */
+    private void addPlayerLines(Player player, List<String> lines) {
         // Player stats
         String playerTeam = game.getPlayerTeam(player);
         if (playerTeam != null) {
-            objective.getScore(ChatColor.WHITE + "Your Team: " + 
-                    getTeamColorCode(playerTeam) + playerTeam).setScore(score--);
+            lines.add(ChatColor.WHITE + "Your Team: " + 
+                    getTeamColorCode(playerTeam) + playerTeam);
         }
         
         int kills = game.getPlayerKills().getOrDefault(player.getUniqueId(), 0);
-        objective.getScore(ChatColor.WHITE + "Kills: " + ChatColor.GREEN + kills).setScore(score--);
+        lines.add(ChatColor.WHITE + "Kills: " + ChatColor.GREEN + kills);
         
         int deaths = game.getPlayerDeaths().getOrDefault(player.getUniqueId(), 0);
-        objective.getScore(ChatColor.WHITE + "Deaths: " + ChatColor.RED + deaths).setScore(score);
+        lines.add(ChatColor.WHITE + "Deaths: " + ChatColor.RED + deaths);
     }
     
     /**
@@ -197,6 +225,11 @@ public class GameScoreboard {
     private String getTeamColorCode(String teamName) {
         if (teamName == null) return ChatColor.WHITE.toString();
         
+        // Teams don't change during a game, so each color is only looked up once
+        return teamColorCodes.computeIfAbsent(teamName, this::lookupTeamColorCode);
+    }
+    
+    private String lookupTeamColorCode(String teamName) {
         return switch (game.getArena().getTeam(teamName).getColor().toUpperCase()) {
             case "RED" -> ChatColor.RED.toString();
             case "BLUE" -> ChatColor.BLUE.toString();
@@ -209,32 +242,105 @@ public class GameScoreboard {
             default -> ChatColor.WHITE.toString();
         };
     }    /**
-     * Start the scoreboard update task
+     * Get the date shown in the header, formatted once per day
+     * 
+     * @return The formatted date
+     */
+    private String getDate() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(cachedDay)) {
+            cachedDay = today;
+            cachedDate = DATE_FORMAT.format(today);
+        }
+        return cachedDate;
+    }
+    
+    /**
+     * Start refreshing the scoreboards when the game changes
      */
     public void startTask() {
-        updateTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
-            // Force update all players' scoreboards to keep player counts current
-            for (UUID playerId : game.getPlayers()) {
-                Player player = Bukkit.getPlayer(playerId);
-                Scoreboard scoreboard = playerScoreboards.get(playerId);
-                
-                if (player != null && scoreboard != null) {
-                    Objective objective = scoreboard.getObjective("bedwars");
-                    if (objective != null) {
-                        updateScoreboard(player, scoreboard, objective);
-                    }
-                }
-            }
-        }, 20L, 10L); // Update every half second for more responsive health display
+        active = true;
+        markSharedDirty();
     }
     
     /**
-     * Stop the scoreboard update task
+     * Stop refreshing the scoreboards
      */
     public void stopTask() {
-        if (updateTask != null) {
-            updateTask.cancel();
-            updateTask = null;
+        active = false;
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        sharedDirty = false;
+        dirtyPlayers.clear();
+    }
+    
+    /**
+     * Mark the lines shared by all players as changed (timer, countdown, player count, team status)
+     */
+    public void markSharedDirty() {
+        if (!active) return;
+        sharedDirty = true;
+        scheduleFlush();
+    }
+    
+    /**
+     * Mark the lines of a single player as changed (kills, deaths)
+     * 
+     * @param playerId The player UUID
+     */
+    public void markPlayerDirty(UUID playerId) {
+        if (!active) return;
+        dirtyPlayers.add(playerId);
+        scheduleFlush();
+    }
+    
+    /**
+     * Forget the scoreboard of a player that left the game
+     * 
+     * @param playerId The player UUID
+     */
+    public void removeScoreboard(UUID playerId) {
+        playerSidebars.remove(playerId);
+        dirtyPlayers.remove(playerId);
+    }
+    
+    private void scheduleFlush() {
+        if (flushTask == null) {
+            flushTask = Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+    }
+    
+    /**
+     * Render everything that changed since the last flush
+     */
+    private void flush() {
+        flushTask = null;
+        
+        if (sharedDirty || model == null) {
+            // Shared lines changed, every player needs them
+            model = buildRenderModel();
+            sharedDirty = false;
+            dirtyPlayers.clear();
+            for (UUID playerId : game.getPlayers()) {
+                render(playerId);
+            }
+            return;
+        }
+        
+        for (UUID playerId : dirtyPlayers) {
+            render(playerId);
+        }
+        dirtyPlayers.clear();
+    }
+    
+    private void render(UUID playerId) {
+        Player player = Bukkit.getPlayer(playerId);
+        Sidebar sidebar = playerSidebars.get(playerId);
+        
+        if (player != null && sidebar != null) {
+            updateScoreboard(player, sidebar, model);
         }
     }
     
@@ -294,7 +400,7 @@ public class GameScoreboard {
      */
     public void cleanup() {
         stopTask();
-        playerScoreboards.clear();
+        playerSidebars.clear();
         
         // Unregister teams from the main scoreboard
         ScoreboardManager manager = Bukkit.getScoreboardManager();
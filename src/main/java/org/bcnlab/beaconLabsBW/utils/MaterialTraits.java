@@ -0,0 +1,181 @@
+package org.bcnlab.beaconLabsBW.utils;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.EquipmentSlot;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * BedWars classification of every material (bed, wool, armor slot, tool tier, ...),
+ * computed once from the material names and stored as bit flags indexed by ordinal.
+ * Event handlers classify a material with a single array read instead of string checks.
+ */
+public final class MaterialTraits {
+
+    private static final int BED = 1;
+    private static final int WOOL = 1 << 1;
+    private static final int RESOURCE = 1 << 2;
+    private static final int SWORD = 1 << 3;
+    private static final int AXE = 1 << 4;
+    private static final int PICKAXE = 1 << 5;
+    private static final int SHOVEL = 1 << 6;
+
+    // Armor slot (1 = helmet .. 4 = boots) and the tiers are small numbers in their own bit ranges
+    private static final int ARMOR_SLOT_SHIFT = 8;
+    private static final int ARMOR_TIER_SHIFT = 11;
+    private static final int TOOL_TIER_SHIFT = 14;
+    private static final int FIELD_MASK = 0b111;
+
+    private static final EquipmentSlot[] ARMOR_SLOTS = {
+        null, EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET
+    };
+
+    // Generator resources used as shop currency
+    private static final Set<Material> RESOURCES = EnumSet.of(
+        Material.IRON_INGOT, Material.GOLD_INGOT, Material.DIAMOND, Material.EMERALD
+    );
+
+    private static final int[] TRAITS;
+
+    static {
+        Material[] materials = Material.values();
+        TRAITS = new int[materials.length];
+        for (Material material : materials) {
+            TRAITS[material.ordinal()] = classify(material);
+        }
+    }
+
+    private MaterialTraits() {
+    }
+
+    private static int classify(Material material) {
+        String name = material.name();
+        if (name.startsWith("LEGACY_")) return 0;
+
+        int traits = 0;
+        if (name.endsWith("_BED")) traits |= BED;
+        if (name.endsWith("_WOOL")) traits |= WOOL;
+        if (RESOURCES.contains(material)) traits |= RESOURCE;
+
+        if (name.endsWith("_SWORD")) traits |= SWORD;
+        else if (name.endsWith("_PICKAXE")) traits |= PICKAXE;
+        else if (name.endsWith("_AXE")) traits |= AXE;
+        else if (name.endsWith("_SHOVEL")) traits |= SHOVEL;
+
+        if ((traits & (SWORD | PICKAXE | AXE | SHOVEL)) != 0) {
+            traits |= tierOf(name, "WOODEN_", "STONE_", "IRON_", "DIAMOND_") << TOOL_TIER_SHIFT;
+        }
+
+        int armorSlot = name.endsWith("_HELMET") ? 1
+            : name.endsWith("_CHESTPLATE") ? 2
+            : name.endsWith("_LEGGINGS") ? 3
+            : name.endsWith("_BOOTS") ? 4 : 0;
+        if (armorSlot != 0) {
+            traits |= armorSlot << ARMOR_SLOT_SHIFT;
+            traits |= tierOf(name, "LEATHER_", "CHAINMAIL_", "IRON_", "DIAMOND_") << ARMOR_TIER_SHIFT;
+        }
+        return traits;
+    }
+
+    private static int tierOf(String name, String... tierPrefixes) {
+        for (int i = 0; i < tierPrefixes.length; i++) {
+            if (name.startsWith(tierPrefixes[i])) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int get(Material material) {
+        return material != null ? TRAITS[material.ordinal()] : 0;
+    }
+
+    /**
+     * @param material The material
+     * @return true if the material is a bed of any color
+     */
+    public static boolean isBed(Material material) {
+        return (get(material) & BED) != 0;
+    }
+
+    /**
+     * @param material The material
+     * @return true if the material is wool of any color
+     */
+    public static boolean isWool(Material material) {
+        return (get(material) & WOOL) != 0;
+    }
+
+    /**
+     * @param material The material
+     * @return true if the material is a generator resource (iron, gold, diamond, emerald)
+     */
+    public static boolean isResource(Material material) {
+        return (get(material) & RESOURCE) != 0;
+    }
+
+    /**
+     * @param material The material
+     * @return true if the material is a sword
+     */
+    public static boolean isSword(Material material) {
+        return (get(material) & SWORD) != 0;
+    }
+
+    /**
+     * @param material The material
+     * @return true if the material is an axe (not a pickaxe)
+     */
+    public static boolean isAxe(Material material) {
+        return (get(material) & AXE) != 0;
+    }
+
+    /**
+     * @param material The material
+     * @return true if the material is a pickaxe
+     */
+    public static boolean isPickaxe(Material material) {
+        return (get(material) & PICKAXE) != 0;
+    }
+
+    /**
+     * @param material The material
+     * @return true if the material is a shovel
+     */
+    public static boolean isShovel(Material material) {
+        return (get(material) & SHOVEL) != 0;
+    }
+
+    /**
+     * @param material The material
+     * @return true if the material is a helmet, chestplate, leggings or boots
+     */
+    public static boolean isArmor(Material material) {
+        return ((get(material) >> ARMOR_SLOT_SHIFT) & FIELD_MASK) != 0;
+    }
+
+    /**
+     * @param material The material
+     * @return The slot the armor piece is worn in, or null if it is not armor
+     */
+    public static EquipmentSlot getArmorSlot(Material material) {
+        return ARMOR_SLOTS[(get(material) >> ARMOR_SLOT_SHIFT) & FIELD_MASK];
+    }
+
+    /**
+     * @param material The material
+     * @return 1 (leather) to 4 (diamond), 0 if not armor or another armor type
+     */
+    public static int getArmorTier(Material material) {
+        return (get(material) >> ARMOR_TIER_SHIFT) & FIELD_MASK;
+    }
+
+    /**
+     * @param material The material
+     * @return 1 (wooden) to 4 (diamond) for swords and tools, 0 otherwise
+     */
+    public static int getToolTier(Material material) {
+        return (get(material) >> TOOL_TIER_SHIFT) & FIELD_MASK;
+    }
+}
@@ -0,0 +1,91 @@
+package org.bcnlab.beaconLabsBW.utils;
+
+import org.bukkit.ChatColor;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.List;
+
+/**
+ * Flicker-free sidebar made of fixed line slots.
+ * Every slot is an invisible, unique entry bound to its own scoreboard team; the line text
+ * lives in the team's prefix/suffix. Rendering only touches the slots whose text changed.
+ */
+public class Sidebar {
+
+    public static final int MAX_LINES = 15;
+    private static final int PREFIX_LENGTH = 64;
+
+    private final Scoreboard scoreboard;
+    private final Objective objective;
+    private final String[] entries = new String[MAX_LINES];
+    private final Team[] slots = new Team[MAX_LINES];
+    private final String[] rendered = new String[MAX_LINES];
+    private int shownLines = 0;
+
+    /**
+     * @param scoreboard The player's scoreboard
+     * @param objective The sidebar objective
+     */
+    public Sidebar(Scoreboard scoreboard, Objective objective) {
+        this.scoreboard = scoreboard;
+        this.objective = objective;
+
+        ChatColor[] colors = ChatColor.values();
+        for (int i = 0; i < MAX_LINES; i++) {
+            // A color code followed by a reset renders as nothing but is unique per slot
+            entries[i] = colors[i].toString() + ChatColor.RESET;
+        }
+    }
+
+    /**
+     * Show the given lines, top to bottom (at most 15)
+     *
+     * @param lines The line texts
+     */
+    public void render(List<String> lines) {
+        int count = Math.min(lines.size(), MAX_LINES);
+
+        for (int i = 0; i < count; i++) {
+            String text = lines.get(i);
+            if (!text.equals(rendered[i])) {
+                setSlotText(i, text);
+                rendered[i] = text;
+            }
+            if (i >= shownLines) {
+                objective.getScore(entries[i]).setScore(MAX_LINES - i);
+            }
+        }
+
+        // Hide slots that are no longer used
+        for (int i = count; i < shownLines; i++) {
+            scoreboard.resetScores(entries[i]);
+        }
+        shownLines = count;
+    }
+
+    private void setSlotText(int slot, String text) {
+        Team team = slots[slot];
+        if (team == null) {
+            team = scoreboard.getTeam("line_" + slot);
+            if (team == null) {
+                team = scoreboard.registerNewTeam("line_" + slot);
+            }
+            team.addEntry(entries[slot]);
+            slots[slot] = team;
+        }
+
+        if (text.length() <= PREFIX_LENGTH) {
+            team.setPrefix(text);
+            team.setSuffix("");
+            return;
+        }
+
+        // Long lines continue in the suffix, never split a color code
+        int split = text.charAt(PREFIX_LENGTH - 1) == ChatColor.COLOR_CHAR ? PREFIX_LENGTH - 1 : PREFIX_LENGTH;
+        String prefix = text.substring(0, split);
+        team.setPrefix(prefix);
+        team.setSuffix(ChatColor.getLastColors(prefix) + text.substring(split));
+    }
+}
@@ -0,0 +1,79 @@
+package org.bcnlab.beaconLabsBW.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks BlockPositionSet against a HashSet under random adds and removes
+ */
+class BlockPositionSetTest {
+
+    @Test
+    void packRoundTripsCoordinates() {
+        long packed = BlockPositionSet.pack(-30_000_000, -64, 29_999_999);
+        assertEquals(-30_000_000, BlockPositionSet.unpackX(packed));
+        assertEquals(-64, BlockPositionSet.unpackY(packed));
+        assertEquals(29_999_999, BlockPositionSet.unpackZ(packed));
+    }
+
+    @Test
+    void matchesHashSetOnABridge() {
+        // A single row of blocks, the set stays small so removals constantly move keys around
+        matchesHashSet(random -> BlockPositionSet.pack(random.nextInt(64) - 32, 70, 5));
+    }
+
+    @Test
+    void matchesHashSetInAVolume() {
+        matchesHashSet(random -> BlockPositionSet.pack(random.nextInt(32) - 16, random.nextInt(16), random.nextInt(32) - 16));
+    }
+
+    private static void matchesHashSet(ToLongFunction<Random> keys) {
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            BlockPositionSet set = new BlockPositionSet(16);
+            Set<Long> expected = new HashSet<>();
+
+            for (int op = 0; op < 20_000; op++) {
+                long key = keys.applyAsLong(random);
+                switch (random.nextInt(3)) {
+                    case 0 -> assertEquals(expected.add(key), set.add(key), "add, seed " + seed + ", op " + op);
+                    case 1 -> assertEquals(expected.remove(key), set.remove(key), "remove, seed " + seed + ", op " + op);
+                    default -> assertEquals(expected.contains(key), set.contains(key), "contains, seed " + seed + ", op " + op);
+                }
+                assertEquals(expected.size(), set.size(), "size, seed " + seed + ", op " + op);
+            }
+
+            for (Long key : expected) {
+                assertTrue(set.contains(key), "missing key, seed " + seed);
+            }
+            long[] actual = set.toArray();
+            long[] wanted = expected.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(actual);
+            Arrays.sort(wanted);
+            assertArrayEquals(wanted, actual, "contents, seed " + seed);
+        }
+    }
+
+    @Test
+    void clearKeepsSetUsable() {
+        BlockPositionSet set = new BlockPositionSet();
+        for (int i = 0; i < 1000; i++) {
+            set.add(BlockPositionSet.pack(i, 64, -i));
+        }
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(BlockPositionSet.pack(5, 64, -5)));
+        assertTrue(set.add(BlockPositionSet.pack(5, 64, -5)));
+        assertEquals(1, set.size());
+    }
+}